@@ -2,14 +2,22 @@ package com.avereon.aveon;
 
 import com.avereon.curve.math.*;
 import com.avereon.data.Node;
+import com.avereon.geometry.ArcLengthTable;
 import com.avereon.geometry.Cubic2D;
 import com.avereon.geometry.Point2D;
+import com.avereon.geometry.PointArray2D;
 import lombok.CustomLog;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.BiFunction;
+import java.util.Map;
 
 /**
  * Some examples:
@@ -37,65 +45,50 @@ public class Airfoil extends Node {
 	 */
 	private static final String LOWER_DEFINITION_POINTS = "lower-definition-points";
 
-	/**
-	 * The points used to define the airfoil after it is analyzed and to be used for calculations.
-	 */
-	private static final String UPPER_ANALYSIS_POINTS = "upper-analysis-points";
+	// The derived geometry is computed when it is first requested and cleared
+	// when the definition points change. This keeps loading an airfoil cheap
+	// when only a few of the values are needed.
 
-	/**
-	 * The points used to define the airfoil after it is analyzed and to be used for calculations.
-	 */
-	private static final String LOWER_ANALYSIS_POINTS = "lower-analysis-points";
+	// The highest point on the upper surface
+	private Point2D upperThickness;
 
-	/**
-	 * The points used to define the airfoil after it is analyzed and to be used for panels.
-	 */
-	private static final String UPPER_PANEL_CURVES = "upper-construction-curves";
+	// The lowest point on the lower surface
+	private Point2D lowerThickness;
 
-	/**
-	 * The points used to define the airfoil after it is analyzed and to be used for panels.
-	 */
-	private static final String LOWER_PANEL_CURVES = "lower-construction-curves";
+	private List<List<Point2D>> upperPointGroups;
 
-	/**
-	 * The points used to define the airfoil after it is analyzed and to be used for panels.
-	 */
-	private static final String UPPER_PANEL_POINTS = "upper-construction-points";
+	private List<List<Point2D>> lowerPointGroups;
 
-	/**
-	 * The points used to define the airfoil after it is analyzed and to be used for panels.
-	 */
-	private static final String LOWER_PANEL_POINTS = "lower-construction-points";
+	private List<Point2D> upperInflections;
 
-	// The highest point on the upper surface
-	private double maxY;
+	private List<Point2D> lowerInflections;
 
-	// The lowest point on the lower surface
-	private double minY;
+	private List<Cubic2D> upperPanelCurves;
 
-	// The thickness at maxY
-	private Point2D upperThickness = Point2D.ZERO;
+	private List<Cubic2D> lowerPanelCurves;
 
-	// The thickness at minY
-	private Point2D lowerThickness = Point2D.ZERO;
+	private StationIndex upperIndex;
 
-	private Point2D maxThickness = Point2D.ZERO;
+	private StationIndex lowerIndex;
 
-	private Point2D thicknessUpper = Point2D.ZERO;
+	private ArcLengthTable upperSurfaceTable;
 
-	private Point2D thicknessLower = Point2D.ZERO;
+	private ArcLengthTable lowerSurfaceTable;
 
-	private List<Point2D> camber = List.of();
+	// The surface points for each panelization that has been requested
+	private final Map<Panelization, SurfacePoints> surfacePoints = new HashMap<>();
 
-	private Point2D maxCamber = Point2D.ZERO;
+	private Point2D maxThickness;
 
-	private List<List<Point2D>> upperPointGroups;
+	private Point2D thicknessUpper;
 
-	private List<List<Point2D>> lowerPointGroups;
+	private Point2D thicknessLower;
+
+	private List<Point2D> camber;
 
-	private List<Point2D> upperInflections = List.of();
+	private Point2D maxCamber;
 
-	private List<Point2D> lowerInflections = List.of();
+	private byte[] contentHash;
 
 	public Airfoil() {
 		definePrimaryKey( ID );
@@ -133,7 +126,22 @@ public class Airfoil extends Node {
 
 		setUpperDefinitionPoints( normalize( upper ) );
 		setLowerDefinitionPoints( normalize( lower ) );
-		analyze();
+		resetAnalysis();
+		return this;
+	}
+
+	/**
+	 * Set definition points that are already normalized, like points that were
+	 * saved from another airfoil. The points are used as given.
+	 *
+	 * @param upper The upper points from leading edge to trailing edge
+	 * @param lower The lower points from leading edge to trailing edge
+	 * @return This airfoil
+	 */
+	Airfoil setNormalizedDefinitionPoints( List<Point2D> upper, List<Point2D> lower ) {
+		setUpperDefinitionPoints( upper );
+		setLowerDefinitionPoints( lower );
+		resetAnalysis();
 		return this;
 	}
 
@@ -213,91 +221,246 @@ public class Airfoil extends Node {
 		return points;
 	}
 
-	private List<Point2D> getUpperAnalysisPoints() {
-		return getValue( UPPER_ANALYSIS_POINTS, List.of() );
-	}
-
-	private List<Point2D> getLowerAnalysisPoints() {
-		return getValue( LOWER_ANALYSIS_POINTS, List.of() );
-	}
-
 	public List<Point2D> getAnalysisPoints() {
-		List<Point2D> points = new ArrayList<>( getLowerAnalysisPoints() );
-		points.remove( 0 );
+		SurfacePoints analysisPoints = getSurfacePoints( Panelization.ANALYSIS );
+		List<Point2D> points = new ArrayList<>( analysisPoints.lower.asList() );
+		if( !points.isEmpty() ) points.remove( 0 );
 		Collections.reverse( points );
-		points.addAll( getUpperAnalysisPoints() );
+		points.addAll( analysisPoints.upper.asList() );
 		return points;
 	}
 
 	public List<Point2D> getUpperPoints() {
-		return getValue( UPPER_PANEL_POINTS, List.of() );
+		return getUpperPoints( Panelization.PANELS );
 	}
 
 	public List<Point2D> getLowerPoints() {
-		return getValue( LOWER_PANEL_POINTS, List.of() );
+		return getLowerPoints( Panelization.PANELS );
+	}
+
+	/**
+	 * Get the upper surface points for a panelization. The points are computed
+	 * the first time a panelization is requested and kept until the definition
+	 * points change.
+	 *
+	 * @param panelization The panelization
+	 * @return The upper surface points from leading edge to trailing edge
+	 */
+	public List<Point2D> getUpperPoints( Panelization panelization ) {
+		return getSurfacePoints( panelization ).upper.asList();
+	}
+
+	/**
+	 * Get the lower surface points for a panelization. The points are computed
+	 * the first time a panelization is requested and kept until the definition
+	 * points change.
+	 *
+	 * @param panelization The panelization
+	 * @return The lower surface points from leading edge to trailing edge
+	 */
+	public List<Point2D> getLowerPoints( Panelization panelization ) {
+		return getSurfacePoints( panelization ).lower.asList();
+	}
+
+	/**
+	 * Get the packed upper surface point coordinates for a panelization.
+	 *
+	 * @param panelization The panelization
+	 * @return The upper surface points from leading edge to trailing edge
+	 * @see #getUpperPoints(Panelization)
+	 */
+	public PointArray2D getUpperPointArray( Panelization panelization ) {
+		return getSurfacePoints( panelization ).upper;
+	}
+
+	/**
+	 * Get the packed lower surface point coordinates for a panelization.
+	 *
+	 * @param panelization The panelization
+	 * @return The lower surface points from leading edge to trailing edge
+	 * @see #getLowerPoints(Panelization)
+	 */
+	public PointArray2D getLowerPointArray( Panelization panelization ) {
+		return getSurfacePoints( panelization ).lower;
 	}
 
 	public double getMinY() {
-		return minY;
+		return getLowerThickness().getY();
 	}
 
 	public double getMaxY() {
-		return maxY;
+		return getUpperThickness().getY();
 	}
 
 	public double getThickness() {
+		updateThickness();
 		return maxThickness.getY();
 	}
 
 	public double getThicknessStation() {
+		updateThickness();
 		return maxThickness.getX();
 	}
 
 	public Point2D getThicknessUpper() {
+		updateThickness();
 		return thicknessUpper;
 	}
 
 	public Point2D getThicknessLower() {
+		updateThickness();
 		return thicknessLower;
 	}
 
 	public Point2D getUpperThickness() {
+		updateExtremes();
 		return upperThickness;
 	}
 
 	public Point2D getLowerThickness() {
+		updateExtremes();
 		return lowerThickness;
 	}
 
 	public List<Point2D> getCamber() {
+		updateCamber();
 		return camber;
 	}
 
 	public Point2D getMaxCamber() {
+		updateThickness();
 		return maxCamber;
 	}
 
 	public List<Point2D> getUpperInflections() {
+		updatePointGroups();
 		return upperInflections;
 	}
 
 	public List<Point2D> getLowerInflections() {
+		updatePointGroups();
 		return lowerInflections;
 	}
 
 	public List<List<Point2D>> getUpperPointGroups() {
+		updatePointGroups();
 		return upperPointGroups;
 	}
 
 	public List<List<Point2D>> getLowerPointGroups() {
+		updatePointGroups();
 		return lowerPointGroups;
 	}
 
+	/**
+	 * Get the arc length and curvature tables for the upper surface. The
+	 * surface runs from the leading edge to the trailing edge.
+	 *
+	 * @return The upper surface tables
+	 */
+	public synchronized ArcLengthTable getUpperSurfaceTable() {
+		if( upperSurfaceTable == null ) {
+			updateSurface();
+			upperSurfaceTable = new ArcLengthTable( upperPanelCurves );
+		}
+		return upperSurfaceTable;
+	}
+
+	/**
+	 * Get the arc length and curvature tables for the lower surface. The
+	 * surface runs from the leading edge to the trailing edge.
+	 *
+	 * @return The lower surface tables
+	 */
+	public synchronized ArcLengthTable getLowerSurfaceTable() {
+		if( lowerSurfaceTable == null ) {
+			updateSurface();
+			lowerSurfaceTable = new ArcLengthTable( lowerPanelCurves );
+		}
+		return lowerSurfaceTable;
+	}
+
+	/**
+	 * Get a SHA-256 hash of the definition points. Airfoils with the same
+	 * definition points have the same hash, so the hash can be used to check
+	 * if cached geometry belongs to an airfoil.
+	 *
+	 * @return The content hash
+	 */
+	public synchronized byte[] getContentHash() {
+		if( contentHash == null ) {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance( "SHA-256" );
+			} catch( NoSuchAlgorithmException exception ) {
+				throw new IllegalStateException( exception );
+			}
+			ByteBuffer buffer = ByteBuffer.allocate( 16 );
+			for( List<Point2D> points : Arrays.asList( getUpperDefinitionPoints(), getLowerDefinitionPoints() ) ) {
+				int count = points == null ? -1 : points.size();
+				digest.update( buffer.clear().putInt( count ).flip() );
+				if( points == null ) continue;
+				for( Point2D point : points ) {
+					digest.update( buffer.clear().putDouble( point.x ).putDouble( point.y ).flip() );
+				}
+			}
+			contentHash = digest.digest();
+		}
+		return contentHash.clone();
+	}
+
+	/**
+	 * Check if the airfoil can be analyzed. The derived geometry is computed on
+	 * demand, so this only requires the definition points.
+	 *
+	 * @return True if the airfoil has definition points
+	 */
 	public boolean isAnalyzed() {
-		return getUpperPoints() != null && getLowerPoints() != null;
+		return getUpperDefinitionPoints() != null && getLowerDefinitionPoints() != null;
 	}
 
-	public void analyze() {
+	/**
+	 * Compute all the derived geometry now instead of when it is first
+	 * requested.
+	 */
+	public synchronized void analyze() {
+		resetAnalysis();
+		updateExtremes();
+		updatePointGroups();
+		getSurfacePoints( Panelization.PANELS );
+		updateThickness();
+	}
+
+	private synchronized void resetAnalysis() {
+		upperThickness = null;
+		lowerThickness = null;
+		upperPointGroups = null;
+		lowerPointGroups = null;
+		upperInflections = null;
+		lowerInflections = null;
+		upperPanelCurves = null;
+		lowerPanelCurves = null;
+		upperIndex = null;
+		lowerIndex = null;
+		upperSurfaceTable = null;
+		lowerSurfaceTable = null;
+		surfacePoints.clear();
+		maxThickness = null;
+		thicknessUpper = null;
+		thicknessLower = null;
+		camber = null;
+		maxCamber = null;
+		contentHash = null;
+	}
+
+	private synchronized void updateExtremes() {
+		if( upperThickness != null ) return;
+		if( !isAnalyzed() ) {
+			upperThickness = Point2D.ZERO;
+			lowerThickness = Point2D.ZERO;
+			return;
+		}
+
 		// Min Y
 		double minY = Double.MAX_VALUE;
 		double lowerThicknessStation = Double.NaN;
@@ -307,7 +470,6 @@ public class Airfoil extends Node {
 				lowerThicknessStation = point.x;
 			}
 		}
-		this.minY = minY;
 
 		// Max Y
 		double maxY = Double.MIN_VALUE;
@@ -318,7 +480,20 @@ public class Airfoil extends Node {
 				upperThicknessStation = point.x;
 			}
 		}
-		this.maxY = maxY;
+
+		upperThickness = new Point2D( upperThicknessStation, maxY );
+		lowerThickness = new Point2D( lowerThicknessStation, minY );
+	}
+
+	private synchronized void updatePointGroups() {
+		if( upperPointGroups != null ) return;
+		if( !isAnalyzed() ) {
+			upperPointGroups = List.of();
+			lowerPointGroups = List.of();
+			upperInflections = List.of();
+			lowerInflections = List.of();
+			return;
+		}
 
 		// Point groups
 		upperPointGroups = getStationPointGroups( getUpperDefinitionPoints() );
@@ -327,47 +502,166 @@ public class Airfoil extends Node {
 		// Inflections
 		upperInflections = Collections.unmodifiableList( findInflections( upperPointGroups ) );
 		lowerInflections = Collections.unmodifiableList( findInflections( lowerPointGroups ) );
+	}
 
-		upperThickness = new Point2D( upperThicknessStation, maxY );
-		lowerThickness = new Point2D( lowerThicknessStation, minY );
+	private synchronized void updateSurface() {
+		if( upperPanelCurves != null ) return;
+		if( isAnalyzed() ) {
+			// Generate cubic curve surfaces
+			fitSurface( getDefinitionPoints() );
+		} else {
+			upperPanelCurves = List.of();
+			lowerPanelCurves = List.of();
+		}
+		upperIndex = new StationIndex( upperPanelCurves );
+		lowerIndex = new StationIndex( lowerPanelCurves );
+	}
+
+	synchronized List<Cubic2D> getUpperSurfaceCurves() {
+		updateSurface();
+		return upperPanelCurves;
+	}
 
-		// Generate cubic curve surfaces
-		fitSurface( getDefinitionPoints() );
+	synchronized List<Cubic2D> getLowerSurfaceCurves() {
+		updateSurface();
+		return lowerPanelCurves;
+	}
 
-		// Generate analysis points
-		fitPoints( 1000, UPPER_ANALYSIS_POINTS, LOWER_ANALYSIS_POINTS, Airfoil::linearSpacing );
+	/**
+	 * Use surface curves that were fitted previously instead of fitting the
+	 * definition points again.
+	 */
+	synchronized void restoreSurface( List<Cubic2D> upper, List<Cubic2D> lower ) {
+		upperPanelCurves = upper;
+		lowerPanelCurves = lower;
+		upperIndex = new StationIndex( upper );
+		lowerIndex = new StationIndex( lower );
+	}
 
-		// Generate panel points
-		int panelCount = 60;
-		fitPoints( panelCount + 1, UPPER_PANEL_POINTS, LOWER_PANEL_POINTS, Airfoil::cosineSpacing );
+	/**
+	 * Use thickness and camber values that were computed previously.
+	 */
+	synchronized void restoreThickness( Point2D maxThickness, Point2D thicknessUpper, Point2D thicknessLower, Point2D maxCamber ) {
+		this.maxThickness = maxThickness;
+		this.thicknessUpper = thicknessUpper;
+		this.thicknessLower = thicknessLower;
+		this.maxCamber = maxCamber;
+	}
 
-		List<Point2D> uppers = getValue( UPPER_ANALYSIS_POINTS, List.of() );
-		List<Point2D> lowers = getValue( LOWER_ANALYSIS_POINTS, List.of() );
-		int count = lowers.size();
-		List<Point2D> camber = new ArrayList<>();
-		for( int index = 0; index < count; index++ ) {
-			Point2D upper = uppers.get( index );
-			Point2D lower = lowers.get( index );
-
-			// Find the max camber
-			// Camber is the midpoint between the upper and lower surfaces at each station
-			Point2D camberPoint = upper.midpoint( lower );
-			camber.add( camberPoint );
-			if( camberPoint.getY() > maxCamber.getY() ) maxCamber = camberPoint;
-
-			// Find the max thickness
-			// Thickness is measured at each station
-			double thickness = upper.distance( lower );
-			if( thickness > getThickness() ) {
-				thicknessUpper = upper;
-				thicknessLower = lower;
-				maxThickness = Point2D.of( upper.getX(), thickness );
+	/**
+	 * Get the panelizations that have surface points cached.
+	 */
+	synchronized List<Panelization> getSurfacePanelizations() {
+		return new ArrayList<>( surfacePoints.keySet() );
+	}
+
+	/**
+	 * Use surface points that were computed previously for a panelization.
+	 */
+	synchronized void restoreSurfacePoints( Panelization panelization, PointArray2D upper, PointArray2D lower ) {
+		surfacePoints.put( panelization, new SurfacePoints( upper, lower ) );
+	}
+
+	private synchronized SurfacePoints getSurfacePoints( Panelization panelization ) {
+		SurfacePoints points = surfacePoints.get( panelization );
+		if( points == null ) {
+			updateSurface();
+			points = new SurfacePoints( fitPoints( upperIndex, panelization ), fitPoints( lowerIndex, panelization ) );
+			surfacePoints.put( panelization, points );
+		}
+		return points;
+	}
+
+	/**
+	 * Find the max thickness and max camber in one pass over the analysis
+	 * stations. Both surfaces are evaluated at each station and only the
+	 * maximum values are kept, so no analysis points or camber points are
+	 * created.
+	 */
+	private synchronized void updateThickness() {
+		if( maxThickness != null ) return;
+		updateSurface();
+
+		Panelization analysis = Panelization.ANALYSIS;
+		int count = analysis.getCount();
+		double maxCamberX = 0;
+		double maxCamberY = 0;
+		double maxThicknessX = 0;
+		double maxThicknessUpperY = 0;
+		double maxThicknessLowerY = 0;
+		double maxThickness = 0;
+		if( !upperIndex.isEmpty() && !lowerIndex.isEmpty() ) {
+			for( int station = 1; station < count; station++ ) {
+				double x = analysis.getStation( station );
+				double upperY = findStationY( upperIndex, x );
+				double lowerY = findStationY( lowerIndex, x );
+
+				// Camber is the midpoint between the upper and lower surfaces at each station
+				double camberY = lowerY + 0.5 * (upperY - lowerY);
+				if( camberY > maxCamberY ) {
+					maxCamberX = x;
+					maxCamberY = camberY;
+				}
+
+				// Thickness is measured at each station
+				double thickness = Math.abs( upperY - lowerY );
+				if( thickness > maxThickness ) {
+					maxThicknessX = x;
+					maxThicknessUpperY = upperY;
+					maxThicknessLowerY = lowerY;
+					maxThickness = thickness;
+				}
 			}
 		}
-		this.camber = Collections.unmodifiableList( camber );
+
+		this.maxCamber = maxCamberY > 0 ? Point2D.of( maxCamberX, maxCamberY ) : Point2D.ZERO;
+		if( maxThickness > 0 ) {
+			this.maxThickness = Point2D.of( maxThicknessX, maxThickness );
+			this.thicknessUpper = Point2D.of( maxThicknessX, maxThicknessUpperY );
+			this.thicknessLower = Point2D.of( maxThicknessX, maxThicknessLowerY );
+		} else {
+			this.maxThickness = Point2D.ZERO;
+			this.thicknessUpper = Point2D.ZERO;
+			this.thicknessLower = Point2D.ZERO;
+		}
 		//		if( maxCamber.getX() == 0 ) maxCamber = new Point2D( getThicknessMoment(), 0 );
 	}
 
+	/**
+	 * Create the camber points at the analysis stations. The camber points are
+	 * only created when they are requested.
+	 */
+	private synchronized void updateCamber() {
+		if( camber != null ) return;
+		updateSurface();
+		if( upperIndex.isEmpty() || lowerIndex.isEmpty() ) {
+			camber = List.of();
+			return;
+		}
+
+		// The first camber point is the leading edge at the origin
+		Panelization analysis = Panelization.ANALYSIS;
+		int count = analysis.getCount();
+		double[] coords = new double[ 2 * (count + 1) ];
+		for( int station = 1; station < count; station++ ) {
+			double x = analysis.getStation( station );
+			double upperY = findStationY( upperIndex, x );
+			double lowerY = findStationY( lowerIndex, x );
+			coords[ 2 * station ] = x;
+			coords[ 2 * station + 1 ] = lowerY + 0.5 * (upperY - lowerY);
+		}
+
+		// The last camber point is the trailing edge
+		coords[ 2 * count ] = 1;
+
+		camber = new PointArray2D( coords ).asList();
+	}
+
+	private static double findStationY( StationIndex index, double station ) {
+		double y = index.findStationY( station );
+		return Double.isNaN( y ) ? 0 : y;
+	}
+
 	List<Cubic2D> fitSurface( List<Point2D> surface ) {
 		// Points go across the bottom then across the top
 
@@ -413,59 +707,98 @@ public class Airfoil extends Node {
 		}
 		if( !isUpperSurface ) log.atWarn().log( "Did not switch to upper surface" );
 		Collections.reverse( lowerPanelCurves );
-		setValue( UPPER_PANEL_CURVES, upperPanelCurves );
-		setValue( LOWER_PANEL_CURVES, lowerPanelCurves );
+		this.upperPanelCurves = upperPanelCurves;
+		this.lowerPanelCurves = lowerPanelCurves;
 
 		return panelCurves;
 	}
 
-	void fitPoints( int stationCount, String upperKey, String lowerKey, BiFunction<Double, Double, Double> spacing ) {
-		List<Point2D> upperPoints = new ArrayList<>();
-		List<Point2D> lowerPoints = new ArrayList<>();
+	PointArray2D fitPoints( StationIndex index, Panelization panelization ) {
+		if( index.isEmpty() ) return PointArray2D.EMPTY;
+
+		// The first point is the leading edge at the origin
+		int count = panelization.getCount();
+		double[] coords = new double[ 2 * (count + 1) ];
+		for( int station = 1; station < count; station++ ) {
+			double x = panelization.getStation( station );
+			double y = index.findStationY( x );
 
-		upperPoints.add( Point2D.of( 0, 0 ) );
-		lowerPoints.add( Point2D.of( 0, 0 ) );
-		for( int index = 1; index < stationCount; index++ ) {
-			double station = spacing.apply( (double)stationCount, (double)index );
-			upperPoints.add( findStationPoint( getValue( UPPER_PANEL_CURVES ), station ) );
-			lowerPoints.add( findStationPoint( getValue( LOWER_PANEL_CURVES ), station ) );
+			// Use the origin if the station was not found
+			if( !Double.isNaN( y ) ) {
+				coords[ 2 * station ] = x;
+				coords[ 2 * station + 1 ] = y;
+			}
 		}
-		upperPoints.add( Point2D.of( 1, 0 ) );
-		lowerPoints.add( Point2D.of( 1, 0 ) );
 
-		setValue( upperKey, upperPoints );
-		setValue( lowerKey, lowerPoints );
-	}
+		// The last point is the trailing edge
+		coords[ 2 * count ] = 1;
 
-	private static double linearSpacing( double stationCount, double index ) {
-		return index / stationCount;
+		return new PointArray2D( coords );
 	}
 
-	private static double cosineSpacing( double stationCount, double index ) {
-		double alpha = Math.PI * linearSpacing( stationCount, index );
-		return 1.0 - (0.5 * Math.cos( alpha ) + 0.5);
+	/**
+	 * The upper and lower surface points for one panelization.
+	 */
+	private static class SurfacePoints {
+
+		private final PointArray2D upper;
+
+		private final PointArray2D lower;
+
+		SurfacePoints( PointArray2D upper, PointArray2D lower ) {
+			this.upper = upper;
+			this.lower = lower;
+		}
+
 	}
 
-	private Point2D findStationPoint( List<Cubic2D> panelCurves, double station ) {
-		// Compute the intersection of a line at the station and a definition curve
-		for( Cubic2D curve : panelCurves ) {
-			if( station < curve.ax || station > curve.dx ) continue;
-			double[] p1 = Point.of( station, 1.0 );
-			double[] p2 = Point.of( station, -1.0 );
-			double[] a = Point.of( curve.ax, curve.ay );
-			double[] b = Point.of( curve.bx, curve.by );
-			double[] c = Point.of( curve.cx, curve.cy );
-			double[] d = Point.of( curve.dx, curve.dy );
-			Intersection2D intersection = Intersection2D.intersectLineBezier3( p1, p2, a, b, c, d );
-			if( intersection.getType() == Intersection.Type.INTERSECTION ) {
-				return Point2D.of( intersection.getPoints()[ 0 ] );
+	/**
+	 * An index of surface curves sorted by the X coordinate of the start point.
+	 * The curve containing a station is found with a binary search and the
+	 * station point is found by solving the curve for the station.
+	 */
+	static class StationIndex {
+
+		private final Cubic2D[] curves;
+
+		private final double[] starts;
+
+		// The largest end X coordinate of the curves up to each index
+		private final double[] ends;
+
+		StationIndex( List<Cubic2D> panelCurves ) {
+			curves = panelCurves.toArray( new Cubic2D[ 0 ] );
+			Arrays.sort( curves, Comparator.comparingDouble( c -> c.ax ) );
+			starts = new double[ curves.length ];
+			ends = new double[ curves.length ];
+			for( int index = 0; index < curves.length; index++ ) {
+				starts[ index ] = curves[ index ].ax;
+				ends[ index ] = index == 0 ? curves[ index ].dx : Math.max( ends[ index - 1 ], curves[ index ].dx );
 			}
 		}
 
-		//log.atWarn().log( "No intersection found at " + station );
+		boolean isEmpty() {
+			return curves.length == 0;
+		}
+
+		double findStationY( double station ) {
+			// Find the last curve that starts at or before the station
+			int index = Arrays.binarySearch( starts, station );
+			if( index < 0 ) index = -index - 2;
+
+			// Usually the first curve checked contains the station but curves that
+			// are not monotonic in X near the leading edge can overlap. No earlier
+			// curve ends after the station once the largest end is before it.
+			for( ; index >= 0 && station <= ends[ index ]; index-- ) {
+				Cubic2D curve = curves[ index ];
+				if( station > curve.dx ) continue;
+				double t = curve.solveX( station );
+				if( !Double.isNaN( t ) ) return curve.eval( t ).getY();
+			}
+
+			return Double.NaN;
+		}
 
-		// Add the point for the station
-		return Point2D.ZERO;
 	}
 
 	List<Point2D> findInflections( List<List<Point2D>> groups ) {
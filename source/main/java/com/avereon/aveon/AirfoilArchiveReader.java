@@ -0,0 +1,202 @@
+package com.avereon.aveon;
+
+import lombok.CustomLog;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads airfoils from a zip archive of station point files, like the airfoil
+ * collections that are distributed as archives of coordinate files. The
+ * archive is read once, in order, without extracting it. The bytes of each
+ * entry are handed to an executor and parsed in parallel with
+ * {@link AirfoilStationPointCodec}. Only a limited number of entries are held
+ * in memory at one time, so archives of any size can be read.
+ * <p>
+ * An entry that cannot be parsed is logged and reported in the result, it
+ * does not stop the other entries. The airfoils are passed to the consumer
+ * one at a time, so the consumer does not need to be thread safe, but the
+ * airfoils arrive in the order they finish parsing, not archive order. If a
+ * read is interrupted or fails, no airfoils are passed to the consumer after
+ * the read returns.
+ */
+@CustomLog
+public final class AirfoilArchiveReader {
+
+	private AirfoilArchiveReader() {}
+
+	/**
+	 * Read the airfoils in an archive file using the common pool.
+	 *
+	 * @param archive The archive file
+	 * @param consumer The consumer of the airfoils
+	 * @return The read result
+	 * @throws IOException If the archive cannot be read
+	 */
+	public static Result read( Path archive, Consumer<Airfoil> consumer ) throws IOException {
+		try( InputStream input = new BufferedInputStream( Files.newInputStream( archive ) ) ) {
+			return read( input, consumer, ForkJoinPool.commonPool(), 4 * ForkJoinPool.getCommonPoolParallelism() );
+		}
+	}
+
+	/**
+	 * Read the airfoils in an archive stream.
+	 *
+	 * @param input The archive stream
+	 * @param consumer The consumer of the airfoils
+	 * @param executor The executor used to parse the entries
+	 * @param maxPending The maximum number of entries waiting to be parsed
+	 * @return The read result
+	 * @throws IOException If the archive cannot be read
+	 */
+	public static Result read( InputStream input, Consumer<Airfoil> consumer, Executor executor, int maxPending ) throws IOException {
+		if( maxPending < 1 ) throw new IllegalArgumentException( "Max pending must be at least one" );
+		Semaphore pending = new Semaphore( maxPending );
+		Set<Future<?>> tasks = ConcurrentHashMap.newKeySet();
+		Result result = new Result();
+
+		boolean complete = false;
+		try {
+			ZipInputStream zip = new ZipInputStream( input );
+			ZipEntry entry;
+			while( (entry = zip.getNextEntry()) != null ) {
+				if( entry.isDirectory() ) continue;
+				String name = entry.getName();
+				byte[] bytes = zip.readAllBytes();
+
+				pending.acquire();
+				FutureTask<Void> task = new FutureTask<>( () -> {
+					try {
+						parse( name, bytes, consumer, result );
+					} finally {
+						pending.release();
+					}
+				}, null ) {
+
+					@Override
+					protected void done() {
+						tasks.remove( this );
+					}
+
+				};
+				tasks.add( task );
+				try {
+					executor.execute( task );
+				} catch( RuntimeException exception ) {
+					tasks.remove( task );
+					pending.release();
+					throw exception;
+				}
+			}
+
+			// Wait for the pending entries
+			pending.acquire( maxPending );
+			pending.release( maxPending );
+			complete = true;
+		} catch( InterruptedException exception ) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "Airfoil archive read interrupted" );
+		} finally {
+			if( !complete ) cancel( tasks, result );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Cancel the entries that are still pending when a read does not complete.
+	 * The entries that have not started are not parsed and, once this returns,
+	 * the entries that are still parsing do not pass their airfoils to the
+	 * consumer.
+	 */
+	private static void cancel( Set<Future<?>> tasks, Result result ) {
+		synchronized( result ) {
+			result.cancelled = true;
+		}
+		for( Future<?> task : tasks ) {
+			task.cancel( false );
+		}
+	}
+
+	private static void parse( String name, byte[] bytes, Consumer<Airfoil> consumer, Result result ) {
+		Airfoil airfoil;
+		try {
+			airfoil = AirfoilStationPointCodec.loadStationPoints( new ByteArrayInputStream( bytes ) );
+			airfoil.setId( getId( name ) );
+		} catch( Exception exception ) {
+			log.atWarn( exception ).log( "Unable to load airfoil: %s", name );
+			result.fail( name );
+			return;
+		}
+
+		synchronized( result ) {
+			if( result.cancelled ) return;
+			try {
+				consumer.accept( airfoil );
+				result.loaded++;
+			} catch( RuntimeException exception ) {
+				log.atWarn( exception ).log( "Unable to process airfoil: %s", name );
+				result.fail( name );
+			}
+		}
+	}
+
+	/**
+	 * The id is the entry file name without the path and the last extension.
+	 */
+	static String getId( String name ) {
+		String id = name.substring( name.lastIndexOf( '/' ) + 1 );
+		int extension = id.lastIndexOf( '.' );
+		return extension > 0 ? id.substring( 0, extension ) : id;
+	}
+
+	/**
+	 * The number of airfoils read from an archive and the entries that could
+	 * not be read.
+	 */
+	public static class Result {
+
+		private int loaded;
+
+		private boolean cancelled;
+
+		private final List<String> failed = new ArrayList<>();
+
+		public synchronized int getLoadedCount() {
+			return loaded;
+		}
+
+		public synchronized int getFailedCount() {
+			return failed.size();
+		}
+
+		/**
+		 * Get the names of the archive entries that could not be read.
+		 *
+		 * @return The failed entry names
+		 */
+		public synchronized List<String> getFailedEntries() {
+			return Collections.unmodifiableList( new ArrayList<>( failed ) );
+		}
+
+		private synchronized void fail( String name ) {
+			failed.add( name );
+		}
+
+	}
+
+}
@@ -0,0 +1,386 @@
+package com.avereon.aveon;
+
+import lombok.CustomLog;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk cache for airfoils loaded from URLs. The cache has two parts:
+ * <ul>
+ *   <li>Objects - The parsed airfoils in the {@link AirfoilCodec} format,
+ *   named by the SHA-256 hash of the downloaded content. Different URLs with
+ *   the same content share one object.</li>
+ *   <li>Entries - One small properties file per URL, named by the hash of the
+ *   URL, with the content hash, the time the content was last checked and the
+ *   validators from the server.</li>
+ * </ul>
+ * The cache is offline first. A cached airfoil is returned without any
+ * network access until it is older than the maximum age. After that, the
+ * content is revalidated, using a conditional request when the server
+ * provided validators. If the content cannot be fetched, the cached airfoil
+ * is returned anyway.
+ * <p>
+ * The total size of the objects is limited. When the limit is exceeded, the
+ * least recently used objects are removed. The use time of an object is the
+ * modified time of the object file, which is updated every time the object is
+ * read.
+ */
+@CustomLog
+public class AirfoilCache {
+
+	public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+	public static final Duration DEFAULT_MAX_AGE = Duration.ofDays( 7 );
+
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds( 10 );
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds( 30 );
+
+	private static final String URL = "url";
+
+	private static final String CONTENT = "content";
+
+	private static final String CHECKED = "checked";
+
+	private static final String ETAG = "etag";
+
+	private static final String LAST_MODIFIED = "last-modified";
+
+	private final Path objects;
+
+	private final Path entries;
+
+	private final long maxSize;
+
+	private final Duration maxAge;
+
+	private final HttpClient client;
+
+	public AirfoilCache( Path directory ) {
+		this( directory, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE );
+	}
+
+	/**
+	 * Create an airfoil cache.
+	 *
+	 * @param directory The cache directory
+	 * @param maxSize The maximum total size of the cached airfoils in bytes
+	 * @param maxAge The age after which cached content is revalidated
+	 */
+	public AirfoilCache( Path directory, long maxSize, Duration maxAge ) {
+		this.objects = directory.resolve( "objects" );
+		this.entries = directory.resolve( "entries" );
+		this.maxSize = maxSize;
+		this.maxAge = maxAge;
+		this.client = HttpClient.newBuilder().connectTimeout( CONNECT_TIMEOUT ).followRedirects( HttpClient.Redirect.NORMAL ).build();
+	}
+
+	/**
+	 * Load an airfoil from a URI, using the cached airfoil when possible.
+	 *
+	 * @param uri The airfoil station point URI
+	 * @return The airfoil
+	 * @throws IOException If the airfoil is not cached and cannot be fetched
+	 */
+	public Airfoil load( URI uri ) throws IOException {
+		Path entryFile = entries.resolve( hash( uri.toString() ) + ".properties" );
+		Properties entry = readEntry( entryFile );
+		Path object = entry == null ? null : objects.resolve( entry.getProperty( CONTENT ) + ".airfoil" );
+
+		// Use the cached airfoil if it is fresh enough
+		if( object != null && Files.exists( object ) ) {
+			try {
+				long checked = Long.parseLong( entry.getProperty( CHECKED, "0" ) );
+				if( System.currentTimeMillis() - checked < maxAge.toMillis() ) return readObject( object );
+
+				try {
+					Fetch fetch = fetch( uri, entry );
+					if( fetch.notModified ) {
+						entry.setProperty( CHECKED, String.valueOf( System.currentTimeMillis() ) );
+						writeEntry( entryFile, entry );
+						return readObject( object );
+					}
+					return store( uri, entryFile, fetch );
+				} catch( NoSuchFileException exception ) {
+					throw exception;
+				} catch( IOException exception ) {
+					log.atDebug().log( "Unable to revalidate airfoil, using cached copy: %s: %s", uri, exception.getMessage() );
+					return readObject( object );
+				}
+			} catch( NoSuchFileException exception ) {
+				// The object was evicted after it was found
+				log.atDebug().log( "Cached airfoil was evicted, fetching again: %s", uri );
+			}
+		}
+
+		return store( uri, entryFile, fetch( uri, null ) );
+	}
+
+	/**
+	 * Check if an airfoil for a URI is in the cache.
+	 *
+	 * @param uri The airfoil station point URI
+	 * @return True if the airfoil is cached
+	 */
+	public boolean contains( URI uri ) {
+		try {
+			Properties entry = readEntry( entries.resolve( hash( uri.toString() ) + ".properties" ) );
+			return entry != null && Files.exists( objects.resolve( entry.getProperty( CONTENT ) + ".airfoil" ) );
+		} catch( IOException exception ) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get the total size of the cached airfoils in bytes.
+	 *
+	 * @return The total size of the cached airfoils
+	 * @throws IOException If the cache cannot be read
+	 */
+	public long getSize() throws IOException {
+		long size = 0;
+		for( Path object : listObjects() ) {
+			size += Files.size( object );
+		}
+		return size;
+	}
+
+	/**
+	 * Remove the least recently used airfoils until the cache is within the
+	 * size limit.
+	 *
+	 * @throws IOException If the cache cannot be read
+	 */
+	public synchronized void evict() throws IOException {
+		List<Path> files = listObjects();
+		long size = 0;
+		List<FileTime> times = new ArrayList<>( files.size() );
+		for( Path file : files ) {
+			size += Files.size( file );
+			times.add( Files.getLastModifiedTime( file ) );
+		}
+		if( size <= maxSize ) return;
+
+		// Oldest first
+		List<Integer> order = new ArrayList<>();
+		for( int index = 0; index < files.size(); index++ ) {
+			order.add( index );
+		}
+		order.sort( Comparator.comparing( times::get ) );
+
+		for( int index : order ) {
+			if( size <= maxSize ) break;
+			Path file = files.get( index );
+			long length = Files.size( file );
+			if( Files.deleteIfExists( file ) ) size -= length;
+		}
+
+		pruneEntries();
+	}
+
+	/**
+	 * Remove the entries that point to objects that are no longer cached.
+	 */
+	private void pruneEntries() throws IOException {
+		if( !Files.exists( entries ) ) return;
+		List<Path> files;
+		try( Stream<Path> stream = Files.list( entries ) ) {
+			files = stream.filter( p -> p.getFileName().toString().endsWith( ".properties" ) ).toList();
+		}
+		for( Path file : files ) {
+			Properties entry = readEntry( file );
+			if( entry == null || !Files.exists( objects.resolve( entry.getProperty( CONTENT ) + ".airfoil" ) ) ) Files.deleteIfExists( file );
+		}
+	}
+
+	private Airfoil store( URI uri, Path entryFile, Fetch fetch ) throws IOException {
+		Airfoil airfoil = fetch.airfoil;
+		Path object = objects.resolve( fetch.content + ".airfoil" );
+
+		// The same content may already be cached from another URL
+		if( Files.exists( object ) ) {
+			touch( object );
+		} else {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			AirfoilCodec.saveAirfoil( airfoil, output, true );
+			write( object, output.toByteArray() );
+		}
+
+		Properties entry = new Properties();
+		entry.setProperty( URL, uri.toString() );
+		entry.setProperty( CONTENT, fetch.content );
+		entry.setProperty( CHECKED, String.valueOf( System.currentTimeMillis() ) );
+		if( fetch.etag != null ) entry.setProperty( ETAG, fetch.etag );
+		if( fetch.lastModified != null ) entry.setProperty( LAST_MODIFIED, fetch.lastModified );
+		writeEntry( entryFile, entry );
+
+		evict();
+		return airfoil;
+	}
+
+	private Airfoil readObject( Path object ) throws IOException {
+		Airfoil airfoil;
+		try( InputStream input = new BufferedInputStream( Files.newInputStream( object ) ) ) {
+			airfoil = AirfoilCodec.loadAirfoil( input );
+		}
+
+		touch( object );
+		return airfoil;
+	}
+
+	/**
+	 * Mark an object as recently used.
+	 */
+	private static void touch( Path object ) {
+		try {
+			Files.setLastModifiedTime( object, FileTime.fromMillis( System.currentTimeMillis() ) );
+		} catch( IOException exception ) {
+			log.atWarn( exception ).log( "Unable to update cache time: %s", object );
+		}
+	}
+
+	/**
+	 * Fetch and parse the content at a URI. HTTP content is requested with the
+	 * HTTP client, conditionally if there is a cache entry with validators. The
+	 * content is parsed as it is streamed and hashed at the same time, so the
+	 * content is never held in memory as a whole.
+	 */
+	private Fetch fetch( URI uri, Properties entry ) throws IOException {
+		String scheme = uri.getScheme();
+		if( !"http".equalsIgnoreCase( scheme ) && !"https".equalsIgnoreCase( scheme ) ) {
+			try( InputStream input = uri.toURL().openStream() ) {
+				return parse( input, null, null );
+			}
+		}
+
+		HttpRequest.Builder request = HttpRequest.newBuilder( uri ).timeout( REQUEST_TIMEOUT ).GET();
+		if( entry != null ) {
+			String etag = entry.getProperty( ETAG );
+			String lastModified = entry.getProperty( LAST_MODIFIED );
+			if( etag != null ) request.header( "If-None-Match", etag );
+			if( lastModified != null ) request.header( "If-Modified-Since", lastModified );
+		}
+
+		HttpResponse<InputStream> response;
+		try {
+			response = client.send( request.build(), HttpResponse.BodyHandlers.ofInputStream() );
+		} catch( InterruptedException exception ) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "Airfoil fetch interrupted: " + uri );
+		}
+
+		try( InputStream input = response.body() ) {
+			int status = response.statusCode();
+			if( status == 304 ) return new Fetch( null, null, null, null, true );
+			if( status >= 400 ) throw new IOException( "Unable to fetch airfoil, status " + status + ": " + uri );
+			HttpHeaders headers = response.headers();
+			return parse( input, headers.firstValue( "ETag" ).orElse( null ), headers.firstValue( "Last-Modified" ).orElse( null ) );
+		}
+	}
+
+	private static Fetch parse( InputStream input, String etag, String lastModified ) throws IOException {
+		MessageDigest digest = createDigest();
+		DigestInputStream stream = new DigestInputStream( input, digest );
+		Airfoil airfoil = AirfoilStationPointCodec.loadStationPoints( stream );
+
+		// Include any remaining content in the hash
+		stream.transferTo( OutputStream.nullOutputStream() );
+
+		return new Fetch( airfoil, HexFormat.of().formatHex( digest.digest() ), etag, lastModified, false );
+	}
+
+	private List<Path> listObjects() throws IOException {
+		if( !Files.exists( objects ) ) return List.of();
+		try( Stream<Path> stream = Files.list( objects ) ) {
+			return stream.filter( p -> p.getFileName().toString().endsWith( ".airfoil" ) ).toList();
+		}
+	}
+
+	private static Properties readEntry( Path file ) throws IOException {
+		if( !Files.exists( file ) ) return null;
+		Properties entry = new Properties();
+		try( Reader reader = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) ) {
+			entry.load( reader );
+		}
+		return entry.getProperty( CONTENT ) == null ? null : entry;
+	}
+
+	private static void writeEntry( Path file, Properties entry ) throws IOException {
+		StringWriter writer = new StringWriter();
+		entry.store( writer, null );
+		write( file, writer.toString().getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	/**
+	 * Write a file by moving a temporary file into place so readers never see
+	 * a partial file.
+	 */
+	private static void write( Path file, byte[] bytes ) throws IOException {
+		Files.createDirectories( file.getParent() );
+		Path temp = Files.createTempFile( file.getParent(), file.getFileName().toString(), ".tmp" );
+		try {
+			Files.write( temp, bytes );
+			Files.move( temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		} finally {
+			Files.deleteIfExists( temp );
+		}
+	}
+
+	private static String hash( String value ) {
+		return hash( value.getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	private static String hash( byte[] bytes ) {
+		return HexFormat.of().formatHex( createDigest().digest( bytes ) );
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance( "SHA-256" );
+		} catch( NoSuchAlgorithmException exception ) {
+			throw new IllegalStateException( exception );
+		}
+	}
+
+	private static class Fetch {
+
+		private final Airfoil airfoil;
+
+		// The SHA-256 hash of the fetched content
+		private final String content;
+
+		private final String etag;
+
+		private final String lastModified;
+
+		private final boolean notModified;
+
+		Fetch( Airfoil airfoil, String content, String etag, String lastModified, boolean notModified ) {
+			this.airfoil = airfoil;
+			this.content = content;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.notModified = notModified;
+		}
+
+	}
+
+}
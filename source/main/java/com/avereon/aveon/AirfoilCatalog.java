@@ -0,0 +1,315 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Point2D;
+import lombok.CustomLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A read-only collection of airfoils stored in a single binary file. The
+ * catalog stores the normalized definition points of each airfoil along with
+ * an index of precomputed values, like thickness and camber. The index can be
+ * read without loading or analyzing any airfoil, which makes listing and
+ * filtering a large airfoil database fast.
+ * <p>
+ * The catalog file is memory mapped when it is opened and values are read
+ * directly from the mapped file. The file layout is:
+ * <ul>
+ *   <li>The header with the magic number, version and airfoil count</li>
+ *   <li>One fixed size index entry per airfoil</li>
+ *   <li>The UTF-8 bytes of the airfoil ids and names</li>
+ *   <li>The upper and lower definition points of each airfoil</li>
+ * </ul>
+ */
+@CustomLog
+public class AirfoilCatalog {
+
+	private static final int MAGIC = 0x41564354;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final int ENTRY_SIZE = 80;
+
+	// Index entry field offsets
+	private static final int POINT_OFFSET = 0;
+
+	private static final int UPPER_COUNT = 8;
+
+	private static final int LOWER_COUNT = 12;
+
+	private static final int ID_OFFSET = 16;
+
+	private static final int ID_LENGTH = 20;
+
+	private static final int NAME_OFFSET = 24;
+
+	private static final int NAME_LENGTH = 28;
+
+	private static final int THICKNESS = 32;
+
+	private static final int THICKNESS_STATION = 40;
+
+	private static final int CAMBER = 48;
+
+	private static final int CAMBER_STATION = 56;
+
+	private static final int MIN_Y = 64;
+
+	private static final int MAX_Y = 72;
+
+	private final ByteBuffer buffer;
+
+	private final int count;
+
+	private AirfoilCatalog( ByteBuffer buffer ) throws IOException {
+		this.buffer = buffer.order( ByteOrder.LITTLE_ENDIAN );
+		if( buffer.limit() < HEADER_SIZE || buffer.getInt( 0 ) != MAGIC ) throw new IOException( "Not an airfoil catalog" );
+		if( buffer.getInt( 4 ) != VERSION ) throw new IOException( "Unsupported airfoil catalog version: " + buffer.getInt( 4 ) );
+		this.count = buffer.getInt( 8 );
+	}
+
+	/**
+	 * Load all the airfoil files in a directory and write them to a catalog.
+	 * The files are loaded in parallel. Files that cannot be loaded are logged
+	 * and left out of the catalog.
+	 *
+	 * @param directory The directory with the airfoil station point files
+	 * @param catalog The catalog file to create
+	 * @return The opened catalog
+	 * @throws IOException If the directory cannot be read or the catalog cannot be written
+	 */
+	public static AirfoilCatalog build( Path directory, Path catalog ) throws IOException {
+		List<Path> files;
+		try( Stream<Path> stream = Files.walk( directory ) ) {
+			files = stream.filter( Files::isRegularFile ).sorted( Comparator.comparing( Path::toString ) ).toList();
+		}
+
+		List<Airfoil> airfoils = files.parallelStream().map( AirfoilCatalog::loadAirfoil ).filter( Objects::nonNull ).toList();
+		write( airfoils, catalog );
+		return open( catalog );
+	}
+
+	/**
+	 * Write airfoils to a catalog file. The airfoils are analyzed if needed to
+	 * compute the index values.
+	 *
+	 * @param airfoils The airfoils to write
+	 * @param catalog The catalog file to create
+	 * @throws IOException If the catalog cannot be written
+	 */
+	public static void write( List<Airfoil> airfoils, Path catalog ) throws IOException {
+		int count = airfoils.size();
+		byte[][] ids = new byte[ count ][];
+		byte[][] names = new byte[ count ][];
+		int stringSize = 0;
+		long pointCount = 0;
+		for( int index = 0; index < count; index++ ) {
+			Airfoil airfoil = airfoils.get( index );
+			ids[ index ] = Objects.requireNonNullElse( airfoil.getId(), "" ).getBytes( StandardCharsets.UTF_8 );
+			names[ index ] = Objects.requireNonNullElse( airfoil.getName(), "" ).getBytes( StandardCharsets.UTF_8 );
+			stringSize += ids[ index ].length + names[ index ].length;
+			pointCount += airfoil.getUpperDefinitionPoints().size() + airfoil.getLowerDefinitionPoints().size();
+		}
+
+		// Align the point data to eight bytes
+		long stringOffset = HEADER_SIZE + (long)count * ENTRY_SIZE;
+		long pointOffset = (stringOffset + stringSize + 7) & ~7;
+		long size = pointOffset + pointCount * 16;
+		if( size > Integer.MAX_VALUE ) throw new IOException( "Airfoil catalog too large" );
+
+		ByteBuffer buffer = ByteBuffer.allocate( (int)size ).order( ByteOrder.LITTLE_ENDIAN );
+		buffer.putInt( 0, MAGIC );
+		buffer.putInt( 4, VERSION );
+		buffer.putInt( 8, count );
+
+		int stringPosition = (int)stringOffset;
+		int pointPosition = (int)pointOffset;
+		for( int index = 0; index < count; index++ ) {
+			Airfoil airfoil = airfoils.get( index );
+			List<Point2D> upper = airfoil.getUpperDefinitionPoints();
+			List<Point2D> lower = airfoil.getLowerDefinitionPoints();
+
+			int entry = HEADER_SIZE + index * ENTRY_SIZE;
+			buffer.putLong( entry + POINT_OFFSET, pointPosition );
+			buffer.putInt( entry + UPPER_COUNT, upper.size() );
+			buffer.putInt( entry + LOWER_COUNT, lower.size() );
+			buffer.putInt( entry + ID_OFFSET, stringPosition );
+			buffer.putInt( entry + ID_LENGTH, ids[ index ].length );
+			buffer.put( stringPosition, ids[ index ] );
+			stringPosition += ids[ index ].length;
+			buffer.putInt( entry + NAME_OFFSET, stringPosition );
+			buffer.putInt( entry + NAME_LENGTH, names[ index ].length );
+			buffer.put( stringPosition, names[ index ] );
+			stringPosition += names[ index ].length;
+			buffer.putDouble( entry + THICKNESS, airfoil.getThickness() );
+			buffer.putDouble( entry + THICKNESS_STATION, airfoil.getThicknessStation() );
+			buffer.putDouble( entry + CAMBER, airfoil.getMaxCamber().getY() );
+			buffer.putDouble( entry + CAMBER_STATION, airfoil.getMaxCamber().getX() );
+			buffer.putDouble( entry + MIN_Y, airfoil.getMinY() );
+			buffer.putDouble( entry + MAX_Y, airfoil.getMaxY() );
+
+			for( Point2D point : upper ) {
+				buffer.putDouble( pointPosition, point.getX() );
+				buffer.putDouble( pointPosition + 8, point.getY() );
+				pointPosition += 16;
+			}
+			for( Point2D point : lower ) {
+				buffer.putDouble( pointPosition, point.getX() );
+				buffer.putDouble( pointPosition + 8, point.getY() );
+				pointPosition += 16;
+			}
+		}
+
+		try( FileChannel channel = FileChannel.open( catalog, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+			while( buffer.hasRemaining() ) {
+				channel.write( buffer );
+			}
+		}
+	}
+
+	/**
+	 * Open a catalog file. The file is memory mapped so only the parts of the
+	 * file that are used are read.
+	 *
+	 * @param catalog The catalog file
+	 * @return The catalog
+	 * @throws IOException If the file cannot be read or is not a catalog
+	 */
+	public static AirfoilCatalog open( Path catalog ) throws IOException {
+		try( FileChannel channel = FileChannel.open( catalog, StandardOpenOption.READ ) ) {
+			return new AirfoilCatalog( channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() ) );
+		}
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public String getId( int index ) {
+		int entry = entry( index );
+		return getString( buffer.getInt( entry + ID_OFFSET ), buffer.getInt( entry + ID_LENGTH ) );
+	}
+
+	public String getName( int index ) {
+		int entry = entry( index );
+		return getString( buffer.getInt( entry + NAME_OFFSET ), buffer.getInt( entry + NAME_LENGTH ) );
+	}
+
+	public int getUpperCount( int index ) {
+		return buffer.getInt( entry( index ) + UPPER_COUNT );
+	}
+
+	public int getLowerCount( int index ) {
+		return buffer.getInt( entry( index ) + LOWER_COUNT );
+	}
+
+	public double getThickness( int index ) {
+		return buffer.getDouble( entry( index ) + THICKNESS );
+	}
+
+	public double getThicknessStation( int index ) {
+		return buffer.getDouble( entry( index ) + THICKNESS_STATION );
+	}
+
+	public double getCamber( int index ) {
+		return buffer.getDouble( entry( index ) + CAMBER );
+	}
+
+	public double getCamberStation( int index ) {
+		return buffer.getDouble( entry( index ) + CAMBER_STATION );
+	}
+
+	public double getMinY( int index ) {
+		return buffer.getDouble( entry( index ) + MIN_Y );
+	}
+
+	public double getMaxY( int index ) {
+		return buffer.getDouble( entry( index ) + MAX_Y );
+	}
+
+	/**
+	 * Find the index of an airfoil by id.
+	 *
+	 * @param id The airfoil id
+	 * @return The index of the airfoil or -1 if the airfoil is not in the catalog
+	 */
+	public int indexOf( String id ) {
+		for( int index = 0; index < count; index++ ) {
+			if( getId( index ).equals( id ) ) return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Create an airfoil from the catalog. Derived geometry is computed when it
+	 * is requested from the airfoil.
+	 *
+	 * @param index The airfoil index
+	 * @return A new airfoil
+	 */
+	public Airfoil getAirfoil( int index ) {
+		int entry = entry( index );
+		int position = (int)buffer.getLong( entry + POINT_OFFSET );
+		int upperCount = buffer.getInt( entry + UPPER_COUNT );
+		int lowerCount = buffer.getInt( entry + LOWER_COUNT );
+		List<Point2D> upper = getPoints( position, upperCount );
+		List<Point2D> lower = getPoints( position + upperCount * 16, lowerCount );
+
+		Airfoil airfoil = new Airfoil();
+		airfoil.setId( getId( index ) );
+		airfoil.setName( getName( index ) );
+		airfoil.setNormalizedDefinitionPoints( upper, lower );
+		return airfoil;
+	}
+
+	private int entry( int index ) {
+		if( index < 0 || index >= count ) throw new IndexOutOfBoundsException( index );
+		return HEADER_SIZE + index * ENTRY_SIZE;
+	}
+
+	private String getString( int offset, int length ) {
+		byte[] bytes = new byte[ length ];
+		buffer.get( offset, bytes );
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+
+	private List<Point2D> getPoints( int position, int count ) {
+		List<Point2D> points = new ArrayList<>( count );
+		for( int index = 0; index < count; index++ ) {
+			points.add( new Point2D( buffer.getDouble( position ), buffer.getDouble( position + 8 ) ) );
+			position += 16;
+		}
+		return points;
+	}
+
+	private static Airfoil loadAirfoil( Path file ) {
+		try {
+			Airfoil airfoil = AirfoilStationPointParser.parse( file );
+
+			airfoil.setId( AirfoilArchiveReader.getId( file.getFileName().toString() ) );
+
+			// Compute the index values while still in parallel
+			airfoil.getThickness();
+			airfoil.getMinY();
+			return airfoil;
+		} catch( Exception exception ) {
+			log.atWarn( exception ).log( "Unable to load airfoil: %s", file );
+			return null;
+		}
+	}
+
+}
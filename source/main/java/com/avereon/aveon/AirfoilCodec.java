@@ -0,0 +1,276 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Cubic2D;
+import com.avereon.geometry.Point2D;
+import com.avereon.geometry.PointArray2D;
+import com.avereon.product.Rb;
+import com.avereon.xenon.resource.Codec;
+import com.avereon.xenon.resource.Resource;
+import lombok.CustomLog;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The native binary airfoil format. The file starts with a magic number and
+ * a format version, followed by a compressed body with:
+ * <ul>
+ *   <li>Flags for the optional sections</li>
+ *   <li>The SHA-256 content hash of the definition points</li>
+ *   <li>The airfoil id and name</li>
+ *   <li>The normalized upper and lower definition points</li>
+ *   <li>Optionally, the fitted surface curves and the thickness and camber</li>
+ *   <li>Optionally, the surface points for each cached panelization</li>
+ * </ul>
+ * When an airfoil is loaded, the cached sections are only used if the hash
+ * of the loaded definition points matches the saved hash. Otherwise, the
+ * cached sections are ignored and the geometry is computed again when it is
+ * requested.
+ */
+@CustomLog
+public class AirfoilCodec extends Codec {
+
+	private static final String MEDIA_TYPE = "application/vnd.avereon.aveon.airfoil";
+
+	private static final int MAGIC = 0x41564146;
+
+	private static final int VERSION = 1;
+
+	private static final int ANALYSIS = 0x01;
+
+	private static final int PANELS = 0x02;
+
+	public AirfoilCodec() {
+		setDefaultExtension( "airfoil" );
+		addSupported( Pattern.EXTENSION, "airfoil" );
+		addSupported( Pattern.MEDIATYPE, MEDIA_TYPE );
+	}
+
+	@Override
+	public String getKey() {
+		return MEDIA_TYPE;
+	}
+
+	@Override
+	public String getName() {
+		return Rb.text( "asset", "codec-airfoil-name" );
+	}
+
+	@Override
+	public boolean canLoad() {
+		return true;
+	}
+
+	@Override
+	public boolean canSave() {
+		return true;
+	}
+
+	@Override
+	public void load( Resource resource, InputStream input ) throws IOException {
+		resource.setModel( loadAirfoil( input ) );
+	}
+
+	@Override
+	public void save( Resource resource, OutputStream output ) throws IOException {
+		saveAirfoil( resource.getModel(), output, true );
+	}
+
+	/**
+	 * Save an airfoil. If the analysis is included, the surface curves,
+	 * thickness and camber are computed if needed and saved along with the
+	 * surface points of every panelization the airfoil has cached.
+	 *
+	 * @param airfoil The airfoil
+	 * @param output The output stream
+	 * @param includeAnalysis True to include the analysis and surface points
+	 * @throws IOException If the airfoil cannot be written
+	 */
+	public static void saveAirfoil( Airfoil airfoil, OutputStream output, boolean includeAnalysis ) throws IOException {
+		if( !airfoil.isAnalyzed() ) throw new IOException( "Airfoil does not have definition points" );
+
+		DataOutputStream header = new DataOutputStream( output );
+		header.writeInt( MAGIC );
+		header.writeInt( VERSION );
+		header.flush();
+
+		Deflater deflater = new Deflater( Deflater.BEST_COMPRESSION );
+		try {
+			DeflaterOutputStream body = new DeflaterOutputStream( output, deflater );
+			DataOutputStream data = new DataOutputStream( new BufferedOutputStream( body ) );
+			// Always include the default panels with the analysis
+			if( includeAnalysis ) airfoil.getUpperPointArray( Panelization.PANELS );
+			List<Panelization> panelizations = includeAnalysis ? airfoil.getSurfacePanelizations() : List.of();
+
+			int flags = 0;
+			if( includeAnalysis ) flags |= ANALYSIS;
+			if( !panelizations.isEmpty() ) flags |= PANELS;
+			data.writeByte( flags );
+			data.write( airfoil.getContentHash() );
+			writeString( data, airfoil.getId() );
+			writeString( data, airfoil.getName() );
+			writePoints( data, airfoil.getUpperDefinitionPoints() );
+			writePoints( data, airfoil.getLowerDefinitionPoints() );
+
+			if( includeAnalysis ) {
+				writeCurves( data, airfoil.getUpperSurfaceCurves() );
+				writeCurves( data, airfoil.getLowerSurfaceCurves() );
+				writePoint( data, Point2D.of( airfoil.getThicknessStation(), airfoil.getThickness() ) );
+				writePoint( data, airfoil.getThicknessUpper() );
+				writePoint( data, airfoil.getThicknessLower() );
+				writePoint( data, airfoil.getMaxCamber() );
+			}
+
+			if( !panelizations.isEmpty() ) {
+				data.writeInt( panelizations.size() );
+				for( Panelization panelization : panelizations ) {
+					data.writeInt( panelization.getCount() );
+					data.writeUTF( panelization.getSpacing().name() );
+					data.writeDouble( panelization.getClustering() );
+					writePointArray( data, airfoil.getUpperPointArray( panelization ) );
+					writePointArray( data, airfoil.getLowerPointArray( panelization ) );
+				}
+			}
+
+			// Finish the compressed body without closing the output stream
+			data.flush();
+			body.finish();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Load an airfoil. The cached analysis and surface points are used if they
+	 * match the definition points.
+	 *
+	 * @param input The input stream
+	 * @return The airfoil
+	 * @throws IOException If the airfoil cannot be read
+	 */
+	public static Airfoil loadAirfoil( InputStream input ) throws IOException {
+		DataInputStream header = new DataInputStream( input );
+		if( header.readInt() != MAGIC ) throw new IOException( "Not an airfoil file" );
+		int version = header.readInt();
+		if( version < 1 || version > VERSION ) throw new IOException( "Unsupported airfoil file version: " + version );
+
+		DataInputStream data = new DataInputStream( new BufferedInputStream( new InflaterInputStream( input ) ) );
+		int flags = data.readUnsignedByte();
+		byte[] hash = new byte[ 32 ];
+		data.readFully( hash );
+
+		Airfoil airfoil = new Airfoil();
+		airfoil.setId( readString( data ) );
+		airfoil.setName( readString( data ) );
+		airfoil.setNormalizedDefinitionPoints( readPoints( data ), readPoints( data ) );
+
+		boolean matches = Arrays.equals( hash, airfoil.getContentHash() );
+		if( !matches && flags != 0 ) log.atWarn().log( "Airfoil content hash does not match, ignoring cached analysis: %s", airfoil.getName() );
+
+		if( (flags & ANALYSIS) != 0 ) {
+			List<Cubic2D> upper = readCurves( data );
+			List<Cubic2D> lower = readCurves( data );
+			Point2D maxThickness = readPoint( data );
+			Point2D thicknessUpper = readPoint( data );
+			Point2D thicknessLower = readPoint( data );
+			Point2D maxCamber = readPoint( data );
+			if( matches ) {
+				airfoil.restoreSurface( upper, lower );
+				airfoil.restoreThickness( maxThickness, thicknessUpper, thicknessLower, maxCamber );
+			}
+		}
+
+		if( (flags & PANELS) != 0 ) {
+			int count = data.readInt();
+			for( int index = 0; index < count; index++ ) {
+				int panels = data.readInt();
+				Panelization.Spacing spacing = Panelization.Spacing.valueOf( data.readUTF() );
+				double clustering = data.readDouble();
+				PointArray2D upper = readPointArray( data );
+				PointArray2D lower = readPointArray( data );
+				if( matches ) airfoil.restoreSurfacePoints( new Panelization( panels, spacing, clustering ), upper, lower );
+			}
+		}
+
+		return airfoil;
+	}
+
+	private static void writeString( DataOutputStream data, String value ) throws IOException {
+		data.writeBoolean( value != null );
+		if( value != null ) data.writeUTF( value );
+	}
+
+	private static String readString( DataInputStream data ) throws IOException {
+		return data.readBoolean() ? data.readUTF() : null;
+	}
+
+	private static void writePoint( DataOutputStream data, Point2D point ) throws IOException {
+		data.writeDouble( point.x );
+		data.writeDouble( point.y );
+	}
+
+	private static Point2D readPoint( DataInputStream data ) throws IOException {
+		return new Point2D( data.readDouble(), data.readDouble() );
+	}
+
+	private static void writePoints( DataOutputStream data, List<Point2D> points ) throws IOException {
+		data.writeInt( points.size() );
+		for( Point2D point : points ) {
+			writePoint( data, point );
+		}
+	}
+
+	private static List<Point2D> readPoints( DataInputStream data ) throws IOException {
+		int count = data.readInt();
+		List<Point2D> points = new ArrayList<>( count );
+		for( int index = 0; index < count; index++ ) {
+			points.add( readPoint( data ) );
+		}
+		return points;
+	}
+
+	private static void writePointArray( DataOutputStream data, PointArray2D points ) throws IOException {
+		data.writeInt( points.size() );
+		for( int index = 0; index < points.size(); index++ ) {
+			data.writeDouble( points.getX( index ) );
+			data.writeDouble( points.getY( index ) );
+		}
+	}
+
+	private static PointArray2D readPointArray( DataInputStream data ) throws IOException {
+		double[] coords = new double[ 2 * data.readInt() ];
+		for( int index = 0; index < coords.length; index++ ) {
+			coords[ index ] = data.readDouble();
+		}
+		return new PointArray2D( coords );
+	}
+
+	private static void writeCurves( DataOutputStream data, List<Cubic2D> curves ) throws IOException {
+		data.writeInt( curves.size() );
+		for( Cubic2D curve : curves ) {
+			data.writeDouble( curve.ax );
+			data.writeDouble( curve.ay );
+			data.writeDouble( curve.bx );
+			data.writeDouble( curve.by );
+			data.writeDouble( curve.cx );
+			data.writeDouble( curve.cy );
+			data.writeDouble( curve.dx );
+			data.writeDouble( curve.dy );
+		}
+	}
+
+	private static List<Cubic2D> readCurves( DataInputStream data ) throws IOException {
+		int count = data.readInt();
+		List<Cubic2D> curves = new ArrayList<>( count );
+		for( int index = 0; index < count; index++ ) {
+			curves.add( new Cubic2D( data.readDouble(), data.readDouble(), data.readDouble(), data.readDouble(), data.readDouble(), data.readDouble(), data.readDouble(), data.readDouble() ) );
+		}
+		return curves;
+	}
+
+}
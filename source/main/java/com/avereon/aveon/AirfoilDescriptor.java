@@ -0,0 +1,69 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Point2D;
+
+import java.util.List;
+
+/**
+ * Creates shape descriptors for comparing airfoils. A descriptor is the
+ * thickness and camber of the airfoil sampled at fixed stations, clustered
+ * toward the leading and trailing edges where airfoil shapes differ the most.
+ * The first half of the descriptor is the thickness at each station and the
+ * second half is the camber at each station. Similar airfoils have a small
+ * Euclidean distance between their descriptors.
+ */
+public final class AirfoilDescriptor {
+
+	/**
+	 * The number of stations sampled for the descriptor.
+	 */
+	public static final int STATION_COUNT = 16;
+
+	/**
+	 * The number of values in a descriptor.
+	 */
+	public static final int SIZE = 2 * STATION_COUNT;
+
+	// The end points are always zero so only the interior stations are used
+	private static final Panelization STATIONS = new Panelization( STATION_COUNT + 1, Panelization.Spacing.COSINE );
+
+	private AirfoilDescriptor() {}
+
+	/**
+	 * Create the descriptor for an airfoil.
+	 *
+	 * @param airfoil The airfoil
+	 * @return The airfoil descriptor
+	 */
+	public static double[] create( Airfoil airfoil ) {
+		List<Point2D> upper = airfoil.getUpperPoints( STATIONS );
+		List<Point2D> lower = airfoil.getLowerPoints( STATIONS );
+
+		double[] descriptor = new double[ SIZE ];
+		if( upper.isEmpty() || lower.isEmpty() ) return descriptor;
+		for( int index = 0; index < STATION_COUNT; index++ ) {
+			double upperY = upper.get( index + 1 ).getY();
+			double lowerY = lower.get( index + 1 ).getY();
+			descriptor[ index ] = upperY - lowerY;
+			descriptor[ STATION_COUNT + index ] = 0.5 * (upperY + lowerY);
+		}
+		return descriptor;
+	}
+
+	/**
+	 * Calculate the distance between two descriptors.
+	 *
+	 * @param a The first descriptor
+	 * @param b The second descriptor
+	 * @return The Euclidean distance between the descriptors
+	 */
+	public static double distance( double[] a, double[] b ) {
+		double sum = 0;
+		for( int index = 0; index < a.length; index++ ) {
+			double delta = a[ index ] - b[ index ];
+			sum += delta * delta;
+		}
+		return Math.sqrt( sum );
+	}
+
+}
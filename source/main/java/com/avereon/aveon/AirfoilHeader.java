@@ -0,0 +1,208 @@
+package com.avereon.aveon;
+
+import com.avereon.util.TextUtil;
+import lombok.CustomLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The metadata of an airfoil that can be read without loading the airfoil.
+ * This is enough to list and sort a large number of airfoils by name or point
+ * count, loading only the airfoils that are opened.
+ * <p>
+ * A station point file is probed by reading the name line and the line after
+ * it. In Lednicer format that line has the upper and lower point counts, so
+ * nothing else is read. In Selig format the point count is not in the file,
+ * so the remaining lines are counted, but they are not parsed. A catalog
+ * already has the metadata in its index.
+ */
+@CustomLog
+public class AirfoilHeader {
+
+	public static final Comparator<AirfoilHeader> BY_NAME = Comparator.comparing( AirfoilHeader::getName, String.CASE_INSENSITIVE_ORDER );
+
+	public static final Comparator<AirfoilHeader> BY_POINT_COUNT = Comparator.comparingInt( AirfoilHeader::getPointCount );
+
+	public enum Format {
+		LEDNICER,
+		SELIG,
+		CATALOG
+	}
+
+	private final String id;
+
+	private final String name;
+
+	private final Format format;
+
+	private final int upperCount;
+
+	private final int lowerCount;
+
+	private final int pointCount;
+
+	private final Path file;
+
+	private AirfoilHeader( String id, String name, Format format, int upperCount, int lowerCount, int pointCount, Path file ) {
+		this.id = id;
+		this.name = name;
+		this.format = format;
+		this.upperCount = upperCount;
+		this.lowerCount = lowerCount;
+		this.pointCount = pointCount;
+		this.file = file;
+	}
+
+	/**
+	 * Probe a station point file.
+	 *
+	 * @param file The station point file
+	 * @return The airfoil header
+	 * @throws IOException If the file cannot be read or has no airfoil name
+	 */
+	public static AirfoilHeader probe( Path file ) throws IOException {
+		try( BufferedReader reader = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) ) {
+			return probe( reader, AirfoilArchiveReader.getId( file.getFileName().toString() ), file );
+		}
+	}
+
+	/**
+	 * Probe all the station point files in a directory, in parallel. Files that
+	 * cannot be probed are logged and left out.
+	 *
+	 * @param directory The directory with the airfoil station point files
+	 * @return The airfoil headers
+	 * @throws IOException If the directory cannot be read
+	 */
+	public static List<AirfoilHeader> list( Path directory ) throws IOException {
+		List<Path> files;
+		try( Stream<Path> stream = Files.list( directory ) ) {
+			files = stream.filter( Files::isRegularFile ).toList();
+		}
+		return files.parallelStream().map( AirfoilHeader::probeQuietly ).filter( Objects::nonNull ).toList();
+	}
+
+	/**
+	 * Get the headers of all the airfoils in a catalog. Only the catalog index
+	 * is read.
+	 *
+	 * @param catalog The airfoil catalog
+	 * @return The airfoil headers in catalog order
+	 */
+	public static List<AirfoilHeader> list( AirfoilCatalog catalog ) {
+		return IntStream.range( 0, catalog.size() ).mapToObj( index -> {
+			int upper = catalog.getUpperCount( index );
+			int lower = catalog.getLowerCount( index );
+			return new AirfoilHeader( catalog.getId( index ), catalog.getName( index ), Format.CATALOG, upper, lower, upper + lower, null );
+		} ).toList();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * Get the number of upper surface points.
+	 *
+	 * @return The number of upper surface points or -1 if not known
+	 */
+	public int getUpperCount() {
+		return upperCount;
+	}
+
+	/**
+	 * Get the number of lower surface points.
+	 *
+	 * @return The number of lower surface points or -1 if not known
+	 */
+	public int getLowerCount() {
+		return lowerCount;
+	}
+
+	/**
+	 * Get the number of station points in the file. For Selig files this is
+	 * the number of point lines.
+	 *
+	 * @return The number of station points
+	 */
+	public int getPointCount() {
+		return pointCount;
+	}
+
+	/**
+	 * Get the station point file.
+	 *
+	 * @return The station point file or null if the header is from a catalog
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + format + ", " + pointCount + " points)";
+	}
+
+	static AirfoilHeader probe( BufferedReader reader, String id, Path file ) throws IOException {
+		String name = nextLine( reader );
+		if( name == null ) throw new IOException( "Missing airfoil name" );
+		name = name.trim();
+
+		String line = nextLine( reader );
+		if( line == null ) return new AirfoilHeader( id, name, Format.SELIG, -1, -1, 0, file );
+
+		// Lednicer files have the point counts after the name
+		String[] values = line.trim().split( "\\s+" );
+		double upper;
+		double lower;
+		try {
+			upper = Double.parseDouble( values[ 0 ] );
+			lower = values.length >= 2 ? Double.parseDouble( values[ 1 ] ) : Double.NaN;
+		} catch( NumberFormatException exception ) {
+			throw new IOException( "Invalid station point: " + line );
+		}
+		if( values.length >= 2 && upper > 1 ) return new AirfoilHeader( id, name, Format.LEDNICER, (int)upper, (int)lower, (int)upper + (int)lower, file );
+
+		// Selig files do not have counts so count the point lines
+		int count = 1;
+		while( nextLine( reader ) != null ) {
+			count++;
+		}
+		return new AirfoilHeader( id, name, Format.SELIG, -1, -1, count, file );
+	}
+
+	private static AirfoilHeader probeQuietly( Path file ) {
+		try {
+			return probe( file );
+		} catch( Exception exception ) {
+			log.atWarn( exception ).log( "Unable to probe airfoil: %s", file );
+			return null;
+		}
+	}
+
+	private static String nextLine( BufferedReader reader ) throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+		} while( line != null && TextUtil.isEmpty( line ) );
+		return line;
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.avereon.aveon;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * A similarity index over airfoil descriptors. The index is a vantage point
+ * tree, which only needs the distance between descriptors, so it works well
+ * with the many dimensions of an {@link AirfoilDescriptor}. Nearest neighbor
+ * queries visit only the parts of the tree that can contain a closer match
+ * instead of comparing against every airfoil.
+ * <p>
+ * The tree is stored in a single array. The node at position {@code lo}
+ * covers the items from {@code lo} to {@code hi}. The vantage point is the
+ * item at {@code lo}, the items closer than the node threshold are from
+ * {@code lo + 1} to the median and the rest are after the median.
+ * <p>
+ * The index is immutable after it is built and can be queried from multiple
+ * threads.
+ */
+public class AirfoilIndex {
+
+	private final double[][] descriptors;
+
+	// The descriptor indexes in tree order
+	private final int[] items;
+
+	// The threshold distance for the node at each tree position
+	private final double[] thresholds;
+
+	/**
+	 * Create an index over descriptors. Query results refer to the position of
+	 * the descriptor in the list.
+	 *
+	 * @param descriptors The airfoil descriptors
+	 */
+	public AirfoilIndex( List<double[]> descriptors ) {
+		int count = descriptors.size();
+		this.descriptors = descriptors.toArray( new double[ 0 ][] );
+		this.items = IntStream.range( 0, count ).toArray();
+		this.thresholds = new double[ count ];
+		build( 0, count - 1, new double[ count ] );
+	}
+
+	/**
+	 * Create an index over all the airfoils in a catalog. Query results refer to
+	 * the catalog index of the airfoil.
+	 *
+	 * @param catalog The airfoil catalog
+	 * @return The index
+	 */
+	public static AirfoilIndex build( AirfoilCatalog catalog ) {
+		return new AirfoilIndex( IntStream.range( 0, catalog.size() ).parallel().mapToObj( i -> AirfoilDescriptor.create( catalog.getAirfoil( i ) ) ).toList() );
+	}
+
+	public int size() {
+		return items.length;
+	}
+
+	/**
+	 * Find the airfoils most similar to an airfoil.
+	 *
+	 * @param airfoil The airfoil to match
+	 * @param count The maximum number of matches
+	 * @return The matches ordered from most to least similar
+	 */
+	public List<Match> nearest( Airfoil airfoil, int count ) {
+		return nearest( AirfoilDescriptor.create( airfoil ), count );
+	}
+
+	/**
+	 * Find the descriptors nearest to a descriptor.
+	 *
+	 * @param descriptor The descriptor to match
+	 * @param count The maximum number of matches
+	 * @return The matches ordered from nearest to farthest
+	 */
+	public List<Match> nearest( double[] descriptor, int count ) {
+		if( count < 1 || items.length == 0 ) return List.of();
+
+		// A max heap so the farthest match is removed first
+		PriorityQueue<Match> matches = new PriorityQueue<>( count + 1, Comparator.comparingDouble( Match::getDistance ).reversed() );
+		search( 0, items.length - 1, descriptor, count, matches );
+
+		List<Match> result = new ArrayList<>( matches );
+		result.sort( Comparator.comparingDouble( Match::getDistance ) );
+		return result;
+	}
+
+	private void build( int lo, int hi, double[] distances ) {
+		if( lo >= hi ) return;
+
+		// Use the first item as the vantage point and split the rest at the median
+		double[] vantage = descriptors[ items[ lo ] ];
+		for( int index = lo + 1; index <= hi; index++ ) {
+			distances[ index ] = AirfoilDescriptor.distance( vantage, descriptors[ items[ index ] ] );
+		}
+		int median = (lo + 1 + hi) >>> 1;
+		select( lo + 1, hi, median, distances );
+		thresholds[ lo ] = distances[ median ];
+
+		build( lo + 1, median, distances );
+		build( median + 1, hi, distances );
+	}
+
+	private void search( int lo, int hi, double[] descriptor, int count, PriorityQueue<Match> matches ) {
+		if( lo > hi ) return;
+
+		int item = items[ lo ];
+		double distance = AirfoilDescriptor.distance( descriptor, descriptors[ item ] );
+		if( matches.size() < count || distance < matches.peek().getDistance() ) {
+			matches.add( new Match( item, distance ) );
+			if( matches.size() > count ) matches.poll();
+		}
+		if( lo == hi ) return;
+
+		int median = (lo + 1 + hi) >>> 1;
+		double threshold = thresholds[ lo ];
+		if( distance <= threshold ) {
+			search( lo + 1, median, descriptor, count, matches );
+			if( distance + limit( matches, count ) >= threshold ) search( median + 1, hi, descriptor, count, matches );
+		} else {
+			search( median + 1, hi, descriptor, count, matches );
+			if( distance - limit( matches, count ) <= threshold ) search( lo + 1, median, descriptor, count, matches );
+		}
+	}
+
+	private static double limit( PriorityQueue<Match> matches, int count ) {
+		return matches.size() < count ? Double.POSITIVE_INFINITY : matches.peek().getDistance();
+	}
+
+	/**
+	 * Partially sort the items so the item at the target position has the
+	 * distance it would have if the items were sorted by distance. Items before
+	 * the target are not farther and items after the target are not closer.
+	 */
+	private void select( int lo, int hi, int target, double[] distances ) {
+		while( lo < hi ) {
+			double pivot = distances[ (lo + hi) >>> 1 ];
+			int i = lo;
+			int j = hi;
+			while( i <= j ) {
+				while( distances[ i ] < pivot ) i++;
+				while( distances[ j ] > pivot ) j--;
+				if( i <= j ) swap( i++, j--, distances );
+			}
+			if( target <= j ) {
+				hi = j;
+			} else if( target >= i ) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void swap( int a, int b, double[] distances ) {
+		int item = items[ a ];
+		items[ a ] = items[ b ];
+		items[ b ] = item;
+		double distance = distances[ a ];
+		distances[ a ] = distances[ b ];
+		distances[ b ] = distance;
+	}
+
+	public static class Match {
+
+		private final int index;
+
+		private final double distance;
+
+		Match( int index, double distance ) {
+			this.index = index;
+			this.distance = distance;
+		}
+
+		/**
+		 * Get the index of the matching airfoil. This is the catalog index when
+		 * the index was built from a catalog.
+		 *
+		 * @return The index of the matching airfoil
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public double getDistance() {
+			return distance;
+		}
+
+		@Override
+		public String toString() {
+			return "Match[index=" + index + ",distance=" + distance + "]";
+		}
+
+	}
+
+}
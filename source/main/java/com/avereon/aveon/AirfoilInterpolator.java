@@ -0,0 +1,191 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Point2D;
+import com.avereon.geometry.PointArray2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Blends airfoils from two or more parent airfoils. The parents are sampled
+ * once at shared stations when the interpolator is created. A blend is then
+ * the weighted sum of the parent surface coordinates at each station, so no
+ * spline fitting is needed to create a blend.
+ * <p>
+ * The weights are used as given. Weights that sum to one blend between the
+ * parents, other weights scale or extrapolate the shapes.
+ * <p>
+ * The blended coordinates are written as a closed contour of packed x/y
+ * values in the same order as {@link Airfoil#getDefinitionPoints()}, from the
+ * trailing edge across the lower surface to the leading edge and back across
+ * the upper surface to the trailing edge.
+ */
+public class AirfoilInterpolator {
+
+	/**
+	 * The default stations used to sample the parents.
+	 */
+	public static final Panelization DEFAULT_STATIONS = new Panelization( 100, Panelization.Spacing.COSINE );
+
+	private final int parentCount;
+
+	private final int stationCount;
+
+	private final double[] stations;
+
+	// The upper and lower surface Y coordinates of each parent at each station
+	private final double[][] upper;
+
+	private final double[][] lower;
+
+	public AirfoilInterpolator( List<Airfoil> parents ) {
+		this( parents, DEFAULT_STATIONS );
+	}
+
+	/**
+	 * Create an interpolator for parent airfoils.
+	 *
+	 * @param parents The parent airfoils
+	 * @param panelization The stations used to sample the parents
+	 */
+	public AirfoilInterpolator( List<Airfoil> parents, Panelization panelization ) {
+		if( parents.isEmpty() ) throw new IllegalArgumentException( "At least one parent airfoil is required" );
+		this.parentCount = parents.size();
+		this.stationCount = panelization.getCount() + 1;
+		this.stations = new double[ stationCount ];
+		for( int station = 0; station < stationCount; station++ ) {
+			stations[ station ] = panelization.getStation( station );
+		}
+
+		this.upper = new double[ parentCount ][];
+		this.lower = new double[ parentCount ][];
+		for( int parent = 0; parent < parentCount; parent++ ) {
+			upper[ parent ] = sample( parents.get( parent ).getUpperPointArray( panelization ) );
+			lower[ parent ] = sample( parents.get( parent ).getLowerPointArray( panelization ) );
+		}
+	}
+
+	public int getParentCount() {
+		return parentCount;
+	}
+
+	public int getStationCount() {
+		return stationCount;
+	}
+
+	/**
+	 * Get the number of doubles in a blended contour.
+	 *
+	 * @return The number of doubles in a blended contour
+	 */
+	public int getContourSize() {
+		return 2 * (2 * stationCount - 1);
+	}
+
+	/**
+	 * Blend the parents into the upper and lower surface Y coordinates at each
+	 * station.
+	 *
+	 * @param weights The weight of each parent
+	 * @param upperY The array to receive the upper Y coordinates
+	 * @param lowerY The array to receive the lower Y coordinates
+	 */
+	public void blend( double[] weights, double[] upperY, double[] lowerY ) {
+		checkWeights( weights );
+		for( int station = 0; station < stationCount; station++ ) {
+			upperY[ station ] = 0;
+			lowerY[ station ] = 0;
+		}
+		for( int parent = 0; parent < parentCount; parent++ ) {
+			double weight = weights[ parent ];
+			if( weight == 0 ) continue;
+			double[] parentUpper = upper[ parent ];
+			double[] parentLower = lower[ parent ];
+			for( int station = 0; station < stationCount; station++ ) {
+				upperY[ station ] += weight * parentUpper[ station ];
+				lowerY[ station ] += weight * parentLower[ station ];
+			}
+		}
+	}
+
+	/**
+	 * Blend the parents into a closed contour of packed coordinates.
+	 *
+	 * @param weights The weight of each parent
+	 * @param contour The array to receive the contour, with room for
+	 * {@link #getContourSize()} values
+	 */
+	public void blend( double[] weights, double[] contour ) {
+		checkWeights( weights );
+		int last = stationCount - 1;
+		for( int station = 0; station < stationCount; station++ ) {
+			double upperY = 0;
+			double lowerY = 0;
+			for( int parent = 0; parent < parentCount; parent++ ) {
+				upperY += weights[ parent ] * upper[ parent ][ station ];
+				lowerY += weights[ parent ] * lower[ parent ][ station ];
+			}
+
+			// The lower surface runs backward from the trailing edge
+			int lowerIndex = 2 * (last - station);
+			contour[ lowerIndex ] = stations[ station ];
+			contour[ lowerIndex + 1 ] = lowerY;
+
+			// The upper surface runs forward from the leading edge
+			int upperIndex = 2 * (last + station);
+			contour[ upperIndex ] = stations[ station ];
+			contour[ upperIndex + 1 ] = upperY;
+		}
+	}
+
+	/**
+	 * Blend the parents into a new airfoil.
+	 *
+	 * @param weights The weight of each parent
+	 * @return The blended airfoil
+	 */
+	public Airfoil blend( double... weights ) {
+		double[] upperY = new double[ stationCount ];
+		double[] lowerY = new double[ stationCount ];
+		blend( weights, upperY, lowerY );
+
+		List<Point2D> upperPoints = new ArrayList<>( stationCount );
+		List<Point2D> lowerPoints = new ArrayList<>( stationCount );
+		for( int station = 0; station < stationCount; station++ ) {
+			upperPoints.add( new Point2D( stations[ station ], upperY[ station ] ) );
+			lowerPoints.add( new Point2D( stations[ station ], lowerY[ station ] ) );
+		}
+		return new Airfoil().setDefinitionPoints( upperPoints, lowerPoints );
+	}
+
+	/**
+	 * Blend the parents for each set of weights and pass the contour to the
+	 * consumer. The same contour array is used for every blend, so the consumer
+	 * must copy the values it needs to keep.
+	 *
+	 * @param weights The sets of weights
+	 * @param consumer The consumer of each blended contour
+	 */
+	public void sweep( Iterable<double[]> weights, Consumer<double[]> consumer ) {
+		double[] contour = new double[ getContourSize() ];
+		for( double[] blend : weights ) {
+			blend( blend, contour );
+			consumer.accept( contour );
+		}
+	}
+
+	private void checkWeights( double[] weights ) {
+		if( weights.length != parentCount ) throw new IllegalArgumentException( "Expected " + parentCount + " weights but was " + weights.length );
+	}
+
+	private double[] sample( PointArray2D points ) {
+		double[] values = new double[ stationCount ];
+		if( points.isEmpty() ) return values;
+		for( int station = 0; station < stationCount; station++ ) {
+			values[ station ] = points.getY( station );
+		}
+		return values;
+	}
+
+}
@@ -18,6 +18,7 @@ public class AirfoilResourceType extends ResourceType {
 	public AirfoilResourceType( XenonProgramProduct product ) {
 		super( product, "airfoil2d" );
 		setDefaultCodec( new AirfoilStationPointCodec() );
+		addCodec( new AirfoilCodec() );
 	}
 
 	@Override
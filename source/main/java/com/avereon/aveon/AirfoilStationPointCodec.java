@@ -13,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @CustomLog
 public class AirfoilStationPointCodec extends Codec {
@@ -57,41 +58,51 @@ public class AirfoilStationPointCodec extends Codec {
 	@Override
 	public void save( Resource resource, OutputStream output ) throws IOException {}
 
+	/**
+	 * Load the first airfoil from a stream of Lednicer or Selig station points.
+	 *
+	 * @param input The station point stream
+	 * @return The airfoil
+	 * @throws IOException If the stream cannot be read or does not contain an airfoil
+	 */
 	public static Airfoil loadStationPoints( InputStream input ) throws IOException {
-		// Load the data into lines skipping any blank lines
 		BufferedReader reader = new BufferedReader( new InputStreamReader( input, StandardCharsets.UTF_8 ) );
-		List<String> result = new ArrayList<>();
-		for( ; ; ) {
+		Airfoil[] result = new Airfoil[ 1 ];
+		StationPointReader stationPoints = new StationPointReader( airfoil -> result[ 0 ] = airfoil );
+		while( result[ 0 ] == null ) {
 			String line = reader.readLine();
-			if( line == null ) break;
-			if( !TextUtil.isEmpty( line ) ) result.add( line );
+			if( line == null ) {
+				stationPoints.finish();
+				break;
+			}
+			stationPoints.read( line );
 		}
-
-		// If the first point has values greater than one then
-		// it contains the point counts and
-		// the file is assumed to be in Lednicer format
-		Point2D point = loadStationPoint( result.get( 1 ) );
-		boolean lednicer = point.getX() > 1;
-
-		return lednicer ? loadLednicer( result ) : loadSelig( result );
+		if( result[ 0 ] == null ) throw new IOException( "No airfoil station points found" );
+		return result[ 0 ];
 	}
 
-	static Airfoil loadLednicer( List<String> lines ) {
-		String name = lines.get( 0 ).trim();
-		Point2D counts = loadStationPoint( lines.get( 1 ) );
-		int upperCount = (int)counts.getX();
-		int lowerCount = (int)counts.getY();
-		List<Point2D> upper = loadStationPoints( lines, 2, upperCount );
-		List<Point2D> lower = loadStationPoints( lines, 2 + upperCount, lowerCount );
-		return createAirfoilFromStationPoints( name, upper, lower );
-	}
-
-	static Airfoil loadSelig( List<String> lines ) {
-		String name = lines.get( 0 ).trim();
-		List<Point2D> upper = loadStationPoints( lines, 1, -1 );
-		Collections.reverse( upper );
-		List<Point2D> lower = loadStationPoints( lines, upper.size(), -1 );
-		return createAirfoilFromStationPoints( name, upper, lower );
+	/**
+	 * Load all the airfoils from a stream of Lednicer or Selig station points.
+	 * The stream is read one line at a time and each airfoil is passed to the
+	 * consumer as soon as its last point is read, so only the points of the
+	 * current airfoil are held in memory. The format of each airfoil is
+	 * determined from its name line and first data line, so a stream may
+	 * contain several concatenated coordinate files of either format.
+	 *
+	 * @param input The station point stream
+	 * @param consumer The consumer of each airfoil
+	 * @return The number of airfoils loaded
+	 * @throws IOException If the stream cannot be read
+	 */
+	public static int loadStationPoints( InputStream input, Consumer<Airfoil> consumer ) throws IOException {
+		BufferedReader reader = new BufferedReader( new InputStreamReader( input, StandardCharsets.UTF_8 ) );
+		StationPointReader stationPoints = new StationPointReader( consumer );
+		for( ; ; ) {
+			String line = reader.readLine();
+			if( line == null ) break;
+			stationPoints.read( line );
+		}
+		return stationPoints.finish();
 	}
 
 	/**
@@ -109,33 +120,145 @@ public class AirfoilStationPointCodec extends Codec {
 		return airfoil;
 	}
 
-	private static List<Point2D> loadStationPoints( List<String> lines, int start, int count ) {
-		List<Point2D> points = new ArrayList<>();
+	static Point2D loadStationPoint( String line ) {
+		String[] values = line.trim().split( "\\s+" );
+		double x = Double.parseDouble( values[ 0 ] );
+		double y = Double.parseDouble( values[ 1 ] );
+		return new Point2D( x, y );
+	}
 
-		double x = 1;
-		int index = start;
-		int extent = start + count;
-		while( index < lines.size() && (count < 0 || index < extent) ) {
-			Point2D point = loadStationPoint( lines.get( index ) );
+	/**
+	 * Parse a station point, returning null if the line is not a station point.
+	 */
+	private static Point2D parseStationPoint( String line ) {
+		try {
+			return loadStationPoint( line );
+		} catch( NumberFormatException | ArrayIndexOutOfBoundsException exception ) {
+			return null;
+		}
+	}
 
-			// If the points started at the TE and have now wrapped the LE...break
-			if( start == 1 && point.getX() > x ) break;
+	/**
+	 * A state machine that reads station point lines one at a time. The first
+	 * non-blank line is the airfoil name. If the first point after the name has
+	 * values greater than one then it contains the point counts and the points
+	 * are in Lednicer format. Otherwise, the points are in Selig format and run
+	 * from the trailing edge over the upper surface to the leading edge and
+	 * back along the lower surface. A Selig airfoil ends at the first line that
+	 * is not a station point, which is the name of the next airfoil, or at the
+	 * end of the stream.
+	 */
+	private static class StationPointReader {
 
-			// Avoid repeat points
-			if( points.size() == 0 || !points.get( points.size() - 1 ).equals( point ) ) points.add( point );
+		private enum State {
+			NAME,
+			FORMAT,
+			LEDNICER_UPPER,
+			LEDNICER_LOWER,
+			SELIG_UPPER,
+			SELIG_LOWER
+		}
+
+		private final Consumer<Airfoil> consumer;
+
+		private State state = State.NAME;
+
+		private String name;
+
+		private List<Point2D> upper;
 
-			x = point.getX();
-			index++;
+		private List<Point2D> lower;
+
+		private int upperCount;
+
+		private int lowerCount;
+
+		private int count;
+
+		StationPointReader( Consumer<Airfoil> consumer ) {
+			this.consumer = consumer;
 		}
 
-		return points;
-	}
+		void read( String line ) {
+			if( TextUtil.isEmpty( line ) ) return;
+
+			if( state == State.NAME ) {
+				name = line.trim();
+				upper = new ArrayList<>();
+				lower = new ArrayList<>();
+				state = State.FORMAT;
+				return;
+			}
+
+			Point2D point = parseStationPoint( line );
+			if( point == null ) {
+				// A line that is not a point starts the next airfoil
+				if( state == State.SELIG_LOWER ) {
+					emit();
+				} else {
+					log.atWarn().log( "Invalid station point in %s: %s", name, line );
+					state = State.NAME;
+				}
+				read( line );
+				return;
+			}
+
+			switch( state ) {
+				case FORMAT -> {
+					if( point.getX() > 1 ) {
+						upperCount = (int)point.getX();
+						lowerCount = (int)point.getY();
+						state = upperCount > 0 ? State.LEDNICER_UPPER : State.LEDNICER_LOWER;
+					} else {
+						add( upper, point );
+						state = State.SELIG_UPPER;
+					}
+				}
+				case LEDNICER_UPPER -> {
+					add( upper, point );
+					if( --upperCount == 0 ) state = State.LEDNICER_LOWER;
+				}
+				case LEDNICER_LOWER -> {
+					add( lower, point );
+					if( --lowerCount <= 0 ) emit();
+				}
+				case SELIG_UPPER -> {
+					Point2D prior = upper.get( upper.size() - 1 );
+					if( point.getX() > prior.getX() ) {
+						// The points have wrapped the leading edge
+						add( lower, prior );
+						add( lower, point );
+						state = State.SELIG_LOWER;
+					} else {
+						add( upper, point );
+					}
+				}
+				case SELIG_LOWER -> add( lower, point );
+			}
+		}
+
+		int finish() {
+			if( state == State.SELIG_LOWER || state == State.LEDNICER_LOWER ) emit();
+			return count;
+		}
+
+		private void emit() {
+			if( upper.size() < 2 || lower.size() < 2 ) {
+				log.atWarn().log( "Not enough station points in %s", name );
+			} else {
+				// Selig upper points run from the trailing edge to the leading edge
+				if( state == State.SELIG_LOWER ) Collections.reverse( upper );
+				consumer.accept( createAirfoilFromStationPoints( name, upper, lower ) );
+				count++;
+			}
+			state = State.NAME;
+		}
+
+		private static void add( List<Point2D> points, Point2D point ) {
+			// Avoid repeat points
+			if( points.isEmpty() || !points.get( points.size() - 1 ).equals( point ) ) points.add( point );
+		}
 
-	static Point2D loadStationPoint( String line ) {
-		String[] values = line.trim().split( "\\s+" );
-		double x = Double.parseDouble( values[ 0 ] );
-		double y = Double.parseDouble( values[ 1 ] );
-		return new Point2D( x, y );
 	}
 
 }
@@ -0,0 +1,321 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.PointArray2D;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Parses Selig and Lednicer airfoil coordinate files directly from bytes. The
+ * coordinates are scanned from the buffer and written into packed coordinate
+ * arrays without creating a string or point for each line. This is much faster
+ * than {@link AirfoilStationPointCodec#loadStationPoints} when loading many
+ * airfoil files, like when building an {@link AirfoilCatalog}.
+ * <p>
+ * Numbers with up to fifteen significant digits and small exponents, which
+ * covers the coordinate files in common use, are converted exactly without
+ * any allocation. Other numbers fall back to {@link Double#parseDouble} so
+ * the parsed values always match the values parsed by the codec.
+ */
+public final class AirfoilStationPointParser {
+
+	// Powers of ten that are exactly representable as doubles
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	// The largest mantissa that is exactly representable as a double
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	private final ByteBuffer buffer;
+
+	private final int limit;
+
+	private int position;
+
+	private AirfoilStationPointParser( ByteBuffer buffer ) {
+		this.buffer = buffer;
+		this.limit = buffer.limit();
+		this.position = buffer.position();
+	}
+
+	/**
+	 * Parse an airfoil coordinate file. The file is memory mapped while it is
+	 * parsed.
+	 *
+	 * @param file The coordinate file
+	 * @return The airfoil
+	 * @throws IOException If the file cannot be read or parsed
+	 */
+	public static Airfoil parse( Path file ) throws IOException {
+		try( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+			return parse( channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() ) );
+		}
+	}
+
+	/**
+	 * Parse airfoil coordinates from the remaining bytes in a buffer. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param buffer The coordinate bytes
+	 * @return The airfoil
+	 * @throws IOException If the coordinates cannot be parsed
+	 */
+	public static Airfoil parse( ByteBuffer buffer ) throws IOException {
+		return parseStationPoints( buffer ).toAirfoil();
+	}
+
+	/**
+	 * Parse the airfoil name and station points from the remaining bytes in a
+	 * buffer. The position of the buffer is not changed.
+	 *
+	 * @param buffer The coordinate bytes
+	 * @return The station points
+	 * @throws IOException If the coordinates cannot be parsed
+	 */
+	public static StationPoints parseStationPoints( ByteBuffer buffer ) throws IOException {
+		return new AirfoilStationPointParser( buffer ).parse();
+	}
+
+	private StationPoints parse() throws IOException {
+		String name = readName();
+		double[] coords = readCoords();
+		int count = coords.length / 2;
+		if( count < 2 ) throw new IOException( "Not enough station points" );
+
+		// If the first point has values greater than one then
+		// it contains the point counts and
+		// the file is assumed to be in Lednicer format
+		if( coords[ 0 ] > 1 ) {
+			int upperCount = (int)coords[ 0 ];
+			int lowerCount = (int)coords[ 1 ];
+			if( 1 + upperCount + lowerCount > count ) throw new IOException( "Missing station points" );
+			PointArray2D upper = points( coords, 1, upperCount, 1 );
+			PointArray2D lower = points( coords, 1 + upperCount, lowerCount, 1 );
+			return new StationPoints( name, upper, lower );
+		}
+
+		// The upper surface runs from the trailing edge until the points wrap the leading edge
+		int leadingEdge = 0;
+		while( leadingEdge + 1 < count && coords[ 2 * (leadingEdge + 1) ] <= coords[ 2 * leadingEdge ] ) {
+			leadingEdge++;
+		}
+		PointArray2D upper = points( coords, leadingEdge, leadingEdge + 1, -1 );
+		PointArray2D lower = points( coords, leadingEdge, count - leadingEdge, 1 );
+		return new StationPoints( name, upper, lower );
+	}
+
+	/**
+	 * Read the first non-blank line as the name.
+	 */
+	private String readName() throws IOException {
+		skipBlankLines();
+		if( position >= limit ) throw new IOException( "Missing airfoil name" );
+		int start = position;
+		while( position < limit && !isLineEnd( buffer.get( position ) ) ) position++;
+		byte[] bytes = new byte[ position - start ];
+		buffer.get( start, bytes );
+		return new String( bytes, StandardCharsets.UTF_8 ).trim();
+	}
+
+	/**
+	 * Read the first two numbers on each of the remaining non-blank lines.
+	 */
+	private double[] readCoords() throws IOException {
+		double[] coords = new double[ 256 ];
+		int size = 0;
+		while( true ) {
+			skipBlankLines();
+			if( position >= limit ) break;
+
+			if( size + 2 > coords.length ) coords = Arrays.copyOf( coords, 2 * coords.length );
+			coords[ size++ ] = readNumber();
+			coords[ size++ ] = readNumber();
+
+			// Ignore anything else on the line
+			while( position < limit && !isLineEnd( buffer.get( position ) ) ) position++;
+		}
+		return Arrays.copyOf( coords, size );
+	}
+
+	private double readNumber() throws IOException {
+		while( position < limit && isSpace( buffer.get( position ) ) ) position++;
+		int start = position;
+
+		boolean negative = false;
+		if( position < limit && (buffer.get( position ) == '-' || buffer.get( position ) == '+') ) {
+			negative = buffer.get( position ) == '-';
+			position++;
+		}
+
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		boolean exact = true;
+
+		// Integer digits
+		while( position < limit && isDigit( buffer.get( position ) ) ) {
+			if( mantissa < MAX_EXACT_MANTISSA / 10 ) {
+				mantissa = 10 * mantissa + (buffer.get( position ) - '0');
+			} else {
+				exact = false;
+			}
+			digits++;
+			position++;
+		}
+
+		// Fraction digits
+		if( position < limit && buffer.get( position ) == '.' ) {
+			position++;
+			while( position < limit && isDigit( buffer.get( position ) ) ) {
+				if( mantissa < MAX_EXACT_MANTISSA / 10 ) {
+					mantissa = 10 * mantissa + (buffer.get( position ) - '0');
+					exponent--;
+				} else {
+					exact = false;
+				}
+				digits++;
+				position++;
+			}
+		}
+		if( digits == 0 ) throw new IOException( "Invalid number at byte " + start );
+
+		// Exponent
+		if( position < limit && (buffer.get( position ) == 'e' || buffer.get( position ) == 'E') ) {
+			position++;
+			boolean negativeExponent = false;
+			if( position < limit && (buffer.get( position ) == '-' || buffer.get( position ) == '+') ) {
+				negativeExponent = buffer.get( position ) == '-';
+				position++;
+			}
+			int value = 0;
+			int exponentDigits = 0;
+			while( position < limit && isDigit( buffer.get( position ) ) ) {
+				if( value < 10000 ) value = 10 * value + (buffer.get( position ) - '0');
+				exponentDigits++;
+				position++;
+			}
+			if( exponentDigits == 0 ) throw new IOException( "Invalid number at byte " + start );
+			exponent += negativeExponent ? -value : value;
+		}
+
+		if( !exact || exponent < -22 || exponent > 22 ) return parseDouble( start, position );
+
+		// Both the mantissa and the power of ten are exact so the result is correctly rounded
+		double value = exponent < 0 ? mantissa / POWERS_OF_TEN[ -exponent ] : mantissa * POWERS_OF_TEN[ exponent ];
+		return negative ? -value : value;
+	}
+
+	private double parseDouble( int start, int end ) {
+		byte[] bytes = new byte[ end - start ];
+		buffer.get( start, bytes );
+		return Double.parseDouble( new String( bytes, StandardCharsets.US_ASCII ) );
+	}
+
+	private void skipBlankLines() {
+		int lineStart = position;
+		while( position < limit ) {
+			byte b = buffer.get( position );
+			if( isLineEnd( b ) ) {
+				lineStart = position + 1;
+			} else if( !isSpace( b ) ) {
+				position = lineStart;
+				return;
+			}
+			position++;
+		}
+	}
+
+	/**
+	 * Copy points from the coordinates, skipping repeated points.
+	 *
+	 * @param coords The packed coordinates
+	 * @param start The index of the first point
+	 * @param count The number of points
+	 * @param step The index step, one for forward and negative one for backward
+	 * @return The points
+	 */
+	private static PointArray2D points( double[] coords, int start, int count, int step ) {
+		double[] result = new double[ 2 * count ];
+		int size = 0;
+		for( int index = 0; index < count; index++ ) {
+			int point = 2 * (start + step * index);
+			double x = coords[ point ];
+			double y = coords[ point + 1 ];
+			if( size > 0 && result[ size - 2 ] == x && result[ size - 1 ] == y ) continue;
+			result[ size++ ] = x;
+			result[ size++ ] = y;
+		}
+		return new PointArray2D( size == result.length ? result : Arrays.copyOf( result, size ) );
+	}
+
+	private static boolean isDigit( byte b ) {
+		return b >= '0' && b <= '9';
+	}
+
+	private static boolean isSpace( byte b ) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+	}
+
+	private static boolean isLineEnd( byte b ) {
+		return b == '\n';
+	}
+
+	/**
+	 * The name and station points parsed from a coordinate file.
+	 */
+	public static class StationPoints {
+
+		private final String name;
+
+		private final PointArray2D upper;
+
+		private final PointArray2D lower;
+
+		StationPoints( String name, PointArray2D upper, PointArray2D lower ) {
+			this.name = name;
+			this.upper = upper;
+			this.lower = lower;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Get the upper points from leading edge to trailing edge.
+		 *
+		 * @return The upper points
+		 */
+		public PointArray2D getUpper() {
+			return upper;
+		}
+
+		/**
+		 * Get the lower points from leading edge to trailing edge.
+		 *
+		 * @return The lower points
+		 */
+		public PointArray2D getLower() {
+			return lower;
+		}
+
+		/**
+		 * Create an airfoil from the station points.
+		 *
+		 * @return The airfoil
+		 */
+		public Airfoil toAirfoil() {
+			Airfoil airfoil = new Airfoil();
+			airfoil.setName( name );
+			airfoil.setDefinitionPoints( new ArrayList<>( upper.asList() ), new ArrayList<>( lower.asList() ) );
+			return airfoil;
+		}
+
+	}
+
+}
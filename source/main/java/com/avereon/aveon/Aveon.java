@@ -11,13 +11,26 @@ public class Aveon extends Module {
 
 	private final FlowResourceType flowAssetType;
 
+	private AirfoilCache airfoilCache;
+
 	public Aveon() {
 		airfoilAssetType = new AirfoilResourceType( this );
 		flowAssetType = new FlowResourceType( this );
 	}
 
+	/**
+	 * Get the cache for airfoils loaded from URLs.
+	 *
+	 * @return The airfoil cache
+	 */
+	public AirfoilCache getAirfoilCache() {
+		return airfoilCache;
+	}
+
 	@Override
 	public void startup() {
+		airfoilCache = new AirfoilCache( getDataFolder().resolve( "cache" ).resolve( "airfoils" ) );
+
 		registerIcon( "airfoil", new FlowIcon() );
 		registerIcon( "aveon", new FlowIcon() );
 		registerIcon( "flow", new FlowIcon() );
@@ -0,0 +1,387 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Point2D;
+import com.avereon.geometry.SegmentedPath2D;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Extracts iso-level contours, like isobars and streamlines, from a
+ * {@link FlowField} channel using the
+ * <a href="https://en.wikipedia.org/wiki/Marching_squares">marching squares</a>
+ * algorithm. All the requested levels are extracted in one pass over the grid.
+ * The grid rows are split into strips that are processed in parallel and the
+ * contour fragments from each strip are then stitched into polylines where
+ * they meet at the strip boundaries.
+ * <p>
+ * Cells with a NaN value at any corner, such as cells inside an airfoil, do not
+ * produce contour segments.
+ */
+public class ContourExtractor {
+
+	// Bottom, right, top and left cell edges
+	private static final int BOTTOM = 0;
+
+	private static final int RIGHT = 1;
+
+	private static final int TOP = 2;
+
+	private static final int LEFT = 3;
+
+	/**
+	 * The pairs of cell edges crossed by the contour segments for each of the
+	 * sixteen corner cases. The saddle cases (5 and 10) are resolved separately.
+	 */
+	private static final int[][] SEGMENTS = new int[][]{
+		{},
+		{ LEFT, BOTTOM },
+		{ BOTTOM, RIGHT },
+		{ LEFT, RIGHT },
+		{ RIGHT, TOP },
+		{},
+		{ BOTTOM, TOP },
+		{ LEFT, TOP },
+		{ TOP, LEFT },
+		{ BOTTOM, TOP },
+		{},
+		{ RIGHT, TOP },
+		{ LEFT, RIGHT },
+		{ BOTTOM, RIGHT },
+		{ LEFT, BOTTOM },
+		{}
+	};
+
+	// Saddle segments that cut off the first and third corners
+	private static final int[] CUT_CORNERS_0_2 = new int[]{ LEFT, BOTTOM, RIGHT, TOP };
+
+	// Saddle segments that cut off the second and fourth corners
+	private static final int[] CUT_CORNERS_1_3 = new int[]{ BOTTOM, RIGHT, TOP, LEFT };
+
+	private final FlowField field;
+
+	private final FlowField.Channel channel;
+
+	public ContourExtractor( FlowField field, FlowField.Channel channel ) {
+		this.field = field;
+		this.channel = channel;
+	}
+
+	/**
+	 * Extract the contour polylines for a single level.
+	 *
+	 * @param level The contour level
+	 * @return The contour polylines
+	 */
+	public List<SegmentedPath2D> extract( double level ) {
+		return extract( new double[]{ level } ).get( 0 );
+	}
+
+	/**
+	 * Extract the contour polylines for several levels in one pass.
+	 *
+	 * @param levels The contour levels
+	 * @return The contour polylines for each level, in the same order as the
+	 * levels
+	 */
+	public List<List<SegmentedPath2D>> extract( double... levels ) {
+		return extractPacked( levels ).stream().map( polylines -> polylines.stream().map( ContourExtractor::toPath ).toList() ).toList();
+	}
+
+	/**
+	 * Extract the contour polylines for several levels in one pass as packed
+	 * coordinate buffers. Each polyline is packed as x0, y0, x1, y1 and so on.
+	 * Closed polylines repeat the first point as the last point.
+	 *
+	 * @param levels The contour levels
+	 * @return The packed contour polylines for each level, in the same order as
+	 * the levels
+	 */
+	public List<List<double[]>> extractPacked( double... levels ) {
+		if( !field.hasChannel( channel ) ) return Arrays.stream( levels ).mapToObj( level -> List.<double[]>of() ).toList();
+
+		int rows = field.getYCount() - 1;
+		int stripCount = Math.max( 1, Math.min( rows, Runtime.getRuntime().availableProcessors() * 4 ) );
+
+		// Generate the fragments for each strip of rows in parallel
+		List<List<List<Fragment>>> strips = IntStream.range( 0, stripCount ).parallel().mapToObj( strip -> {
+			int start = rows * strip / stripCount;
+			int end = rows * (strip + 1) / stripCount;
+			return extractStrip( levels, start, end );
+		} ).toList();
+
+		// Stitch the fragments together at the strip boundaries
+		return IntStream.range( 0, levels.length ).parallel().mapToObj( level -> {
+			Linker linker = new Linker();
+			for( List<List<Fragment>> strip : strips ) {
+				strip.get( level ).forEach( linker::add );
+			}
+			return linker.getFragments().stream().map( Fragment::toArray ).toList();
+		} ).toList();
+	}
+
+	private List<List<Fragment>> extractStrip( double[] levels, int start, int end ) {
+		int xCount = field.getXCount();
+		int levelCount = levels.length;
+
+		// Sort the levels so only the levels inside the cell range are checked
+		Integer[] order = IntStream.range( 0, levelCount ).boxed().toArray( Integer[]::new );
+		Arrays.sort( order, Comparator.comparingDouble( index -> levels[ index ] ) );
+		double[] sorted = new double[ levelCount ];
+		for( int index = 0; index < levelCount; index++ ) {
+			sorted[ index ] = levels[ order[ index ] ];
+		}
+
+		double[] xs = new double[ xCount ];
+		for( int i = 0; i < xCount; i++ ) {
+			xs[ i ] = field.getX( i );
+		}
+
+		Linker[] linkers = new Linker[ levelCount ];
+		for( int index = 0; index < levelCount; index++ ) {
+			linkers[ index ] = new Linker();
+		}
+
+		// Only two rows of values are needed at a time
+		double[] lower = new double[ xCount ];
+		double[] upper = new double[ xCount ];
+		field.getRow( channel, start, lower );
+
+		int first = 0;
+		double[] v = new double[ 4 ];
+		for( int j = start; j < end; j++ ) {
+			double y0 = field.getY( j );
+			double y1 = field.getY( j + 1 );
+			field.getRow( channel, j + 1, upper );
+			for( int i = 0; i < xCount - 1; i++ ) {
+				v[ 0 ] = lower[ i ];
+				v[ 1 ] = lower[ i + 1 ];
+				v[ 2 ] = upper[ i + 1 ];
+				v[ 3 ] = upper[ i ];
+				if( Double.isNaN( v[ 0 ] + v[ 1 ] + v[ 2 ] + v[ 3 ] ) ) continue;
+
+				double min = Math.min( Math.min( v[ 0 ], v[ 1 ] ), Math.min( v[ 2 ], v[ 3 ] ) );
+				double max = Math.max( Math.max( v[ 0 ], v[ 1 ] ), Math.max( v[ 2 ], v[ 3 ] ) );
+				first = findFirstAbove( sorted, min, first );
+				if( first >= levelCount || sorted[ first ] > max ) continue;
+
+				double x0 = xs[ i ];
+				double x1 = xs[ i + 1 ];
+				for( int next = first; next < levelCount && sorted[ next ] <= max; next++ ) {
+					int index = order[ next ];
+					double level = sorted[ next ];
+					int type = (v[ 0 ] >= level ? 1 : 0) | (v[ 1 ] >= level ? 2 : 0) | (v[ 2 ] >= level ? 4 : 0) | (v[ 3 ] >= level ? 8 : 0);
+
+					int[] edges = SEGMENTS[ type ];
+					if( type == 5 || type == 10 ) {
+						// Use the cell center value to decide which corners are connected
+						boolean center = 0.25 * (v[ 0 ] + v[ 1 ] + v[ 2 ] + v[ 3 ]) >= level;
+						edges = (type == 5) == center ? CUT_CORNERS_1_3 : CUT_CORNERS_0_2;
+					}
+
+					for( int edge = 0; edge < edges.length; edge += 2 ) {
+						Fragment fragment = new Fragment();
+						addCrossing( fragment, edges[ edge ], i, j, xCount, x0, y0, x1, y1, v, level );
+						addCrossing( fragment, edges[ edge + 1 ], i, j, xCount, x0, y0, x1, y1, v, level );
+						linkers[ index ].add( fragment );
+					}
+				}
+			}
+
+			double[] row = lower;
+			lower = upper;
+			upper = row;
+		}
+
+		List<List<Fragment>> fragments = new ArrayList<>( levelCount );
+		for( Linker linker : linkers ) {
+			fragments.add( linker.getFragments() );
+		}
+		return fragments;
+	}
+
+	/**
+	 * Find the index of the first sorted level greater than the value. Levels
+	 * equal to the smallest corner value are skipped since every corner is
+	 * considered to be above the level. The search starts at the index found for
+	 * the previous cell since neighboring cells usually have similar values.
+	 */
+	private static int findFirstAbove( double[] sorted, double value, int start ) {
+		int index = start;
+		while( index > 0 && sorted[ index - 1 ] > value ) index--;
+		while( index < sorted.length && sorted[ index ] <= value ) index++;
+		return index;
+	}
+
+	/**
+	 * Add the point where the contour crosses a cell edge to the fragment. The
+	 * crossing is interpolated between the same two grid nodes in the same order
+	 * no matter which of the two neighboring cells is evaluated, so neighboring
+	 * cells produce exactly the same point for a shared edge.
+	 */
+	private static void addCrossing( Fragment fragment, int edge, int i, int j, int xCount, double x0, double y0, double x1, double y1, double[] v, double level ) {
+		long node = (long)j * xCount + i;
+		switch( edge ) {
+			case BOTTOM -> fragment.add( 2 * node, x0 + (x1 - x0) * (level - v[ 0 ]) / (v[ 1 ] - v[ 0 ]), y0 );
+			case RIGHT -> fragment.add( 2 * (node + 1) + 1, x1, y0 + (y1 - y0) * (level - v[ 1 ]) / (v[ 2 ] - v[ 1 ]) );
+			case TOP -> fragment.add( 2 * (node + xCount), x0 + (x1 - x0) * (level - v[ 3 ]) / (v[ 2 ] - v[ 3 ]), y1 );
+			case LEFT -> fragment.add( 2 * node + 1, x0, y0 + (y1 - y0) * (level - v[ 0 ]) / (v[ 3 ] - v[ 0 ]) );
+		}
+	}
+
+	private static SegmentedPath2D toPath( double[] coords ) {
+		int count = coords.length / 2;
+		List<Point2D> points = new ArrayList<>( count );
+		for( int index = 0; index < count; index++ ) {
+			points.add( new Point2D( coords[ 2 * index ], coords[ 2 * index + 1 ] ) );
+		}
+		return SegmentedPath2D.of( points );
+	}
+
+	/**
+	 * Links fragments that share an end key into longer fragments. Each key is
+	 * the id of the grid edge the fragment end lies on, so each key is shared by
+	 * at most two fragment ends.
+	 */
+	private static class Linker {
+
+		private final Map<Long, Fragment> ends = new HashMap<>();
+
+		private final List<Fragment> closed = new ArrayList<>();
+
+		void add( Fragment fragment ) {
+			long headKey = fragment.head;
+			long tailKey = fragment.tail;
+
+			Fragment head = ends.get( headKey );
+			if( head != null ) {
+				unmap( head );
+				fragment = Fragment.join( head, fragment, headKey );
+			}
+			if( fragment.isClosed() ) {
+				closed.add( fragment );
+				return;
+			}
+
+			Fragment tail = ends.get( tailKey );
+			if( tail != null ) {
+				unmap( tail );
+				fragment = Fragment.join( fragment, tail, tailKey );
+			}
+			if( fragment.isClosed() ) {
+				closed.add( fragment );
+				return;
+			}
+
+			ends.put( fragment.head, fragment );
+			ends.put( fragment.tail, fragment );
+		}
+
+		List<Fragment> getFragments() {
+			List<Fragment> fragments = new ArrayList<>( closed );
+			ends.forEach( ( key, fragment ) -> {
+				if( key == fragment.head ) fragments.add( fragment );
+			} );
+			return fragments;
+		}
+
+		private void unmap( Fragment fragment ) {
+			ends.remove( fragment.head );
+			ends.remove( fragment.tail );
+		}
+
+	}
+
+	/**
+	 * A polyline of packed coordinates with the edge keys of the first and last
+	 * points. The coordinates are stored with free space at both ends so points
+	 * can be added to either end without moving the existing points.
+	 */
+	private static class Fragment {
+
+		private double[] coords = new double[ 8 ];
+
+		private int first = 4;
+
+		private int last = 4;
+
+		private long head;
+
+		private long tail;
+
+		void add( long key, double x, double y ) {
+			if( first == last ) head = key;
+			tail = key;
+			addTail( x, y );
+		}
+
+		int size() {
+			return last - first;
+		}
+
+		boolean isClosed() {
+			return size() > 4 && head == tail;
+		}
+
+		double[] toArray() {
+			return Arrays.copyOfRange( coords, first, last );
+		}
+
+		/**
+		 * Join two fragments that share a key. The points of the smaller fragment
+		 * are added to the larger fragment, which is returned, so long polylines
+		 * are never copied or reversed.
+		 */
+		static Fragment join( Fragment a, Fragment b, long key ) {
+			Fragment target = a.size() >= b.size() ? a : b;
+			Fragment source = target == a ? b : a;
+
+			boolean forward = source.head == key;
+			long sourceKey = forward ? source.tail : source.head;
+			int count = source.size() / 2;
+
+			// Walk the source away from the shared point, skipping the shared point
+			for( int index = 1; index < count; index++ ) {
+				int offset = source.first + 2 * (forward ? index : count - 1 - index);
+				double x = source.coords[ offset ];
+				double y = source.coords[ offset + 1 ];
+				if( target.tail == key ) {
+					target.addTail( x, y );
+				} else {
+					target.addHead( x, y );
+				}
+			}
+
+			if( target.tail == key ) {
+				target.tail = sourceKey;
+			} else {
+				target.head = sourceKey;
+			}
+			return target;
+		}
+
+		private void addTail( double x, double y ) {
+			if( last + 2 > coords.length ) grow();
+			coords[ last++ ] = x;
+			coords[ last++ ] = y;
+		}
+
+		private void addHead( double x, double y ) {
+			if( first < 2 ) grow();
+			coords[ --first ] = y;
+			coords[ --first ] = x;
+		}
+
+		private void grow() {
+			int size = size();
+			double[] larger = new double[ 2 * coords.length ];
+			int offset = (larger.length - size) / 4 * 2;
+			System.arraycopy( coords, first, larger, offset, size );
+			coords = larger;
+			first = offset;
+			last = offset + size;
+		}
+
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.avereon.aveon;
+
+/**
+ * Interpolates {@link FlowField} channel values at arbitrary points using
+ * bilinear or Catmull-Rom bicubic interpolation. Particle advection and
+ * streamline tracing query the field at points that are usually close to the
+ * previous point, so the sampler keeps the node values of the last cell it
+ * used. Queries that land in the same cell do not read the field again.
+ * <p>
+ * A sampler keeps state between queries and should not be shared between
+ * threads. Create one sampler per thread instead.
+ */
+public class FieldSampler {
+
+	public enum Interpolation {
+		BILINEAR,
+		BICUBIC
+	}
+
+	private final FlowField field;
+
+	private final FlowField.Channel channel;
+
+	private final Interpolation interpolation;
+
+	private double xMin;
+
+	private double yMin;
+
+	private double xScale;
+
+	private double yScale;
+
+	private int xCells;
+
+	private int yCells;
+
+	/**
+	 * The node values of the cached cell. Bilinear interpolation uses the four
+	 * corner values, bicubic interpolation uses four rows of four values.
+	 */
+	private final double[] nodes;
+
+	private int cellI = -1;
+
+	private int cellJ = -1;
+
+	public FieldSampler( FlowField field, FlowField.Channel channel ) {
+		this( field, channel, Interpolation.BILINEAR );
+	}
+
+	public FieldSampler( FlowField field, FlowField.Channel channel, Interpolation interpolation ) {
+		this.field = field;
+		this.channel = channel;
+		this.interpolation = interpolation;
+		this.nodes = new double[ interpolation == Interpolation.BICUBIC ? 16 : 4 ];
+		readGrid();
+	}
+
+	public Interpolation getInterpolation() {
+		return interpolation;
+	}
+
+	/**
+	 * Sample the channel at a point.
+	 *
+	 * @param x The X coordinate
+	 * @param y The Y coordinate
+	 * @return The interpolated value or NaN if the point is outside the grid or
+	 * the channel does not exist
+	 */
+	public double sample( double x, double y ) {
+		double u = (x - xMin) * xScale;
+		double v = (y - yMin) * yScale;
+		if( !(u >= 0 && u <= xCells && v >= 0 && v <= yCells) ) return Double.NaN;
+
+		int i = Math.min( (int)u, xCells - 1 );
+		int j = Math.min( (int)v, yCells - 1 );
+		if( i != cellI || j != cellJ ) loadCell( i, j );
+
+		double s = u - i;
+		double t = v - j;
+		if( interpolation == Interpolation.BICUBIC ) {
+			double r0 = catmullRom( nodes[ 0 ], nodes[ 1 ], nodes[ 2 ], nodes[ 3 ], s );
+			double r1 = catmullRom( nodes[ 4 ], nodes[ 5 ], nodes[ 6 ], nodes[ 7 ], s );
+			double r2 = catmullRom( nodes[ 8 ], nodes[ 9 ], nodes[ 10 ], nodes[ 11 ], s );
+			double r3 = catmullRom( nodes[ 12 ], nodes[ 13 ], nodes[ 14 ], nodes[ 15 ], s );
+			return catmullRom( r0, r1, r2, r3, t );
+		} else {
+			double lower = nodes[ 0 ] + (nodes[ 1 ] - nodes[ 0 ]) * s;
+			double upper = nodes[ 2 ] + (nodes[ 3 ] - nodes[ 2 ]) * s;
+			return lower + (upper - lower) * t;
+		}
+	}
+
+	/**
+	 * Sample the channel at many points. Ordering the points so that
+	 * neighboring points are close together, like points along a streamline,
+	 * makes the best use of the cached cell.
+	 *
+	 * @param x The X coordinates
+	 * @param y The Y coordinates
+	 * @param values The array to receive the interpolated values
+	 */
+	public void sample( double[] x, double[] y, double[] values ) {
+		int count = Math.min( Math.min( x.length, y.length ), values.length );
+		for( int index = 0; index < count; index++ ) {
+			values[ index ] = sample( x[ index ], y[ index ] );
+		}
+	}
+
+	/**
+	 * Sample the channel at many points packed as x0, y0, x1, y1 and so on.
+	 *
+	 * @param points The packed point coordinates
+	 * @param values The array to receive the interpolated values
+	 */
+	public void sample( double[] points, double[] values ) {
+		int count = Math.min( points.length / 2, values.length );
+		for( int index = 0; index < count; index++ ) {
+			values[ index ] = sample( points[ 2 * index ], points[ 2 * index + 1 ] );
+		}
+	}
+
+	/**
+	 * Forget the cached cell values and read the grid extent again. This should
+	 * be called when the field values or the field grid change.
+	 */
+	public void invalidate() {
+		readGrid();
+	}
+
+	private void readGrid() {
+		xMin = field.getXMin();
+		yMin = field.getYMin();
+		xCells = field.getXCount() - 1;
+		yCells = field.getYCount() - 1;
+		xScale = xCells / (field.getXMax() - field.getXMin());
+		yScale = yCells / (field.getYMax() - field.getYMin());
+		cellI = -1;
+		cellJ = -1;
+	}
+
+	private void loadCell( int i, int j ) {
+		if( interpolation == Interpolation.BICUBIC ) {
+			// Clamp the outer ring of nodes to the grid
+			int index = 0;
+			for( int row = j - 1; row <= j + 2; row++ ) {
+				int nodeJ = Math.max( 0, Math.min( yCells, row ) );
+				for( int column = i - 1; column <= i + 2; column++ ) {
+					int nodeI = Math.max( 0, Math.min( xCells, column ) );
+					nodes[ index++ ] = field.get( channel, nodeI, nodeJ );
+				}
+			}
+		} else {
+			nodes[ 0 ] = field.get( channel, i, j );
+			nodes[ 1 ] = field.get( channel, i + 1, j );
+			nodes[ 2 ] = field.get( channel, i, j + 1 );
+			nodes[ 3 ] = field.get( channel, i + 1, j + 1 );
+		}
+		cellI = i;
+		cellJ = j;
+	}
+
+	private static double catmullRom( double p0, double p1, double p2, double p3, double t ) {
+		return p1 + 0.5 * t * (p2 - p0 + t * (2 * p0 - 5 * p1 + 4 * p2 - p3 + t * (3 * (p1 - p2) + p3 - p0)));
+	}
+
+}
@@ -11,6 +11,8 @@ public class Flow2D extends Node implements Resettable {
 
 	static final String FLOW_FIELD = "flow-field";
 
+	private static final String SINGULARITY_STRENGTHS = "singularity-strengths";
+
 	private static final String SURFACE_PRESSURES = "surface-pressures";
 
 	private static final String SURFACE_MOMENTS = "surface-moments";
@@ -41,10 +43,56 @@ public class Flow2D extends Node implements Resettable {
 		return getValue( SOLVER );
 	}
 
+	/**
+	 * Get the strength of each singularity, like the source and vortex
+	 * strength of each panel, computed by the solver.
+	 *
+	 * @return The singularity strengths or null if the flow is not solved
+	 */
+	public double[] getSingularityStrengths() {
+		return getValue( SINGULARITY_STRENGTHS );
+	}
+
+	public Flow2D setSingularityStrengths( double[] strengths ) {
+		setValue( SINGULARITY_STRENGTHS, strengths );
+		return this;
+	}
+
+	/**
+	 * Get the pressure coefficient at each surface point.
+	 *
+	 * @return The surface pressures or null if the flow is not solved
+	 */
+	public double[] getSurfacePressures() {
+		return getValue( SURFACE_PRESSURES );
+	}
+
+	public Flow2D setSurfacePressures( double[] pressures ) {
+		setValue( SURFACE_PRESSURES, pressures );
+		return this;
+	}
+
+	/**
+	 * Get the moment contribution of each surface point.
+	 *
+	 * @return The surface moments or null if the flow is not solved
+	 */
+	public double[] getSurfaceMoments() {
+		return getValue( SURFACE_MOMENTS );
+	}
+
+	public Flow2D setSurfaceMoments( double[] moments ) {
+		setValue( SURFACE_MOMENTS, moments );
+		return this;
+	}
+
 	/**
 	 * Reset all the derived state
 	 */
 	public void reset() {
+		setSingularityStrengths( null );
+		setSurfacePressures( null );
+		setSurfaceMoments( null );
 		getFlowField().invalidate();
 	}
 
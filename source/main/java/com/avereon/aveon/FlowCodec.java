@@ -5,15 +5,65 @@ import com.avereon.xenon.resource.Resource;
 import com.avereon.xenon.resource.Codec;
 import lombok.CustomLog;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+/**
+ * Saves and loads a {@link Flow2D} in a chunked container. The container
+ * starts with a header and a table of chunks, followed by the chunk data.
+ * Each table entry has the chunk type, the chunk name, the compression and
+ * the stored and original chunk sizes. The chunks are:
+ * <ul>
+ *   <li>META - The flow field grid, precision and the solver type</li>
+ *   <li>AIRF - The airfoil in the {@link AirfoilCodec} format</li>
+ *   <li>SING - The singularity strengths</li>
+ *   <li>SURF - The surface pressures and moments</li>
+ *   <li>CHAN - One flow field channel, named by the chunk name</li>
+ * </ul>
+ * Channels are stored in the field precision. Quantized channels are stored
+ * as the quantized values with the channel range, so they are restored
+ * exactly and are not quantized a second time.
+ * <p>
+ * Every chunk is compressed on its own. When a flow is loaded, all the chunks
+ * except the flow field channels are decoded immediately. The channel chunks
+ * are kept compressed and only decoded when the channel values are first
+ * accessed, so opening a flow costs little more than reading the file.
+ * Unknown chunks and unknown channels are skipped, so newer files can add
+ * them without breaking older readers.
+ */
 @CustomLog
 public class FlowCodec extends Codec {
 
 	private static final String MEDIA_TYPE = "application/vnd.avereon.aveon.flow";
 
+	private static final int MAGIC = 0x41564657;
+
+	// Version 2 stores quantized channels as quantized values
+	private static final int VERSION = 2;
+
+	private static final int META = 0x4d455441;
+
+	private static final int AIRFOIL = 0x41495246;
+
+	private static final int SINGULARITIES = 0x53494e47;
+
+	private static final int SURFACE = 0x53555246;
+
+	private static final int CHANNEL = 0x4348414e;
+
+	private static final int STORED = 0;
+
+	private static final int DEFLATED = 1;
+
+	// Deflate cannot expand data by more than this ratio
+	private static final long MAX_DEFLATE_RATIO = 1032;
+
 	public FlowCodec() {
 		setDefaultExtension( "flow" );
 		addSupported( Pattern.MEDIATYPE, MEDIA_TYPE );
@@ -36,17 +86,337 @@ public class FlowCodec extends Codec {
 
 	@Override
 	public boolean canSave() {
-		return false;
+		return true;
 	}
 
 	@Override
 	public void load( Resource resource, InputStream input ) throws IOException {
 		log.atDebug().log( "Loading flow: %s", resource );
+		resource.setModel( loadFlow( input ) );
 	}
 
 	@Override
 	public void save( Resource resource, OutputStream output ) throws IOException {
 		log.atDebug().log( "Saving flow: %s", resource );
+		saveFlow( resource.getModel(), output );
+	}
+
+	/**
+	 * Save a flow.
+	 *
+	 * @param flow The flow
+	 * @param output The output stream
+	 * @throws IOException If the flow cannot be written
+	 */
+	public static void saveFlow( Flow2D flow, OutputStream output ) throws IOException {
+		FlowField field = flow.getFlowField();
+		List<Chunk> chunks = new ArrayList<>();
+
+		// Metadata
+		ByteArrayOutputStream meta = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream( meta );
+		FlowSolver solver = flow.getFlowSolver();
+		data.writeUTF( solver == null ? "" : solver.getClass().getName() );
+		data.writeUTF( field.getPrecision().name() );
+		data.writeInt( field.getXCount() );
+		data.writeInt( field.getYCount() );
+		data.writeDouble( field.getXMin() );
+		data.writeDouble( field.getYMin() );
+		data.writeDouble( field.getXMax() );
+		data.writeDouble( field.getYMax() );
+		chunks.add( Chunk.deflate( META, "", meta.toByteArray() ) );
+
+		// The airfoil codec compresses the airfoil already
+		Airfoil airfoil = flow.getAirfoil();
+		if( airfoil != null && airfoil.isAnalyzed() ) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			AirfoilCodec.saveAirfoil( airfoil, bytes, true );
+			chunks.add( new Chunk( AIRFOIL, "", STORED, bytes.size(), bytes.toByteArray() ) );
+		}
+
+		if( flow.getSingularityStrengths() != null ) {
+			chunks.add( Chunk.deflate( SINGULARITIES, "", encode( flow.getSingularityStrengths() ) ) );
+		}
+
+		if( flow.getSurfacePressures() != null || flow.getSurfaceMoments() != null ) {
+			ByteArrayOutputStream surface = new ByteArrayOutputStream();
+			data = new DataOutputStream( surface );
+			writeValues( data, flow.getSurfacePressures() );
+			writeValues( data, flow.getSurfaceMoments() );
+			chunks.add( Chunk.deflate( SURFACE, "", surface.toByteArray() ) );
+		}
+
+		for( FlowField.Channel channel : FlowField.Channel.values() ) {
+			if( !field.hasChannel( channel ) ) continue;
+			byte[] bytes = switch( field.getPrecision() ) {
+				case DOUBLE -> encode( field.getValues( channel ) );
+				case FLOAT -> encodeFloats( field.getValues( channel ) );
+				case QUANTIZED -> encodeQuantized( field.getQuantizedValues( channel ) );
+			};
+			chunks.add( Chunk.deflate( CHANNEL, channel.name(), bytes ) );
+		}
+
+		// Header and chunk table
+		DataOutputStream stream = new DataOutputStream( new BufferedOutputStream( output ) );
+		stream.writeInt( MAGIC );
+		stream.writeInt( VERSION );
+		stream.writeInt( chunks.size() );
+		for( Chunk chunk : chunks ) {
+			stream.writeInt( chunk.type );
+			stream.writeUTF( chunk.name );
+			stream.writeByte( chunk.compression );
+			stream.writeInt( chunk.size );
+			stream.writeInt( chunk.bytes.length );
+		}
+
+		// Chunk data
+		for( Chunk chunk : chunks ) {
+			stream.write( chunk.bytes );
+		}
+		stream.flush();
+	}
+
+	/**
+	 * Load a flow. The flow field channels are decoded when they are first
+	 * accessed.
+	 *
+	 * @param input The input stream
+	 * @return The flow
+	 * @throws IOException If the flow cannot be read
+	 */
+	public static Flow2D loadFlow( InputStream input ) throws IOException {
+		DataInputStream stream = new DataInputStream( new BufferedInputStream( input ) );
+		if( stream.readInt() != MAGIC ) throw new IOException( "Not a flow file" );
+		int version = stream.readInt();
+		if( version < 1 || version > VERSION ) throw new IOException( "Unsupported flow file version: " + version );
+
+		// The counts are checked before they are used so a corrupt file does not allocate large arrays
+		int count = stream.readInt();
+		if( count < 0 ) throw new IOException( "Invalid flow chunk count: " + count );
+		List<Chunk> chunks = new ArrayList<>();
+		List<Integer> lengths = new ArrayList<>();
+		for( int index = 0; index < count; index++ ) {
+			int type = stream.readInt();
+			String name = stream.readUTF();
+			int compression = stream.readUnsignedByte();
+			int size = stream.readInt();
+			int length = stream.readInt();
+			if( size < 0 || length < 0 ) throw new IOException( "Invalid flow chunk size: " + name );
+			if( compression == STORED && size != length ) throw new IOException( "Invalid flow chunk size: " + name );
+			if( compression == DEFLATED && size > length * MAX_DEFLATE_RATIO ) throw new IOException( "Invalid flow chunk size: " + name );
+			chunks.add( new Chunk( type, name, compression, size, null ) );
+			lengths.add( length );
+		}
+
+		for( int index = 0; index < count; index++ ) {
+			// Read the bytes as they arrive instead of allocating the length first
+			byte[] bytes = stream.readNBytes( lengths.get( index ) );
+			if( bytes.length != lengths.get( index ) ) throw new IOException( "Flow file is truncated" );
+			chunks.set( index, chunks.get( index ).withBytes( bytes ) );
+		}
+
+		// The grid is applied first since setting the grid removes the channels
+		Flow2D flow = new Flow2D();
+		FlowField field = flow.getFlowField();
+		for( Chunk chunk : chunks ) {
+			if( chunk.type == META ) readMeta( chunk, field );
+		}
+
+		for( Chunk chunk : chunks ) {
+			switch( chunk.type ) {
+				case META -> {}
+				case AIRFOIL -> flow.setAirfoil( AirfoilCodec.loadAirfoil( new ByteArrayInputStream( chunk.decode() ) ) );
+				case SINGULARITIES -> flow.setSingularityStrengths( decode( chunk.decode() ) );
+				case SURFACE -> {
+					DataInputStream data = new DataInputStream( new ByteArrayInputStream( chunk.decode() ) );
+					flow.setSurfacePressures( readValues( data ) );
+					flow.setSurfaceMoments( readValues( data ) );
+				}
+				case CHANNEL -> {
+					FlowField.Channel channel = getChannel( chunk.name );
+					if( channel == null ) {
+						log.atDebug().log( "Skipping unknown flow channel: %s", chunk.name );
+					} else if( field.getPrecision() == FlowField.Precision.QUANTIZED && version >= 2 ) {
+						field.setQuantizedValues( channel, () -> decodeQuantized( chunk.decodeUnchecked() ) );
+					} else {
+						boolean floats = field.getPrecision() == FlowField.Precision.FLOAT;
+						field.setValues( channel, () -> {
+							byte[] values = chunk.decodeUnchecked();
+							return floats ? decodeFloats( values ) : decode( values );
+						} );
+					}
+				}
+				default -> log.atDebug().log( "Skipping unknown flow chunk: %08x", chunk.type );
+			}
+		}
+
+		return flow;
+	}
+
+	private static void readMeta( Chunk chunk, FlowField field ) throws IOException {
+		DataInputStream data = new DataInputStream( new ByteArrayInputStream( chunk.decode() ) );
+		data.readUTF();
+		String precision = data.readUTF();
+		try {
+			field.setPrecision( FlowField.Precision.valueOf( precision ) );
+		} catch( IllegalArgumentException exception ) {
+			throw new IOException( "Unsupported flow field precision: " + precision, exception );
+		}
+		int xCount = data.readInt();
+		int yCount = data.readInt();
+		double xMin = data.readDouble();
+		double yMin = data.readDouble();
+		double xMax = data.readDouble();
+		double yMax = data.readDouble();
+
+		// A flow that was never solved does not have a grid
+		if( xCount > 1 && yCount > 1 ) field.setGrid( xMin, yMin, xMax, yMax, xCount, yCount );
+	}
+
+	private static FlowField.Channel getChannel( String name ) {
+		for( FlowField.Channel channel : FlowField.Channel.values() ) {
+			if( channel.name().equals( name ) ) return channel;
+		}
+		return null;
+	}
+
+	private static void writeValues( DataOutputStream data, double[] values ) throws IOException {
+		data.writeInt( values == null ? -1 : values.length );
+		if( values == null ) return;
+		for( double value : values ) {
+			data.writeDouble( value );
+		}
+	}
+
+	private static double[] readValues( DataInputStream data ) throws IOException {
+		int count = data.readInt();
+		if( count < 0 ) return null;
+		if( count > data.available() / 8 ) throw new IOException( "Invalid flow value count: " + count );
+		double[] values = new double[ count ];
+		for( int index = 0; index < count; index++ ) {
+			values[ index ] = data.readDouble();
+		}
+		return values;
+	}
+
+	private static byte[] encode( double[] values ) {
+		ByteBuffer buffer = ByteBuffer.allocate( 8 * values.length );
+		buffer.asDoubleBuffer().put( values );
+		return buffer.array();
+	}
+
+	private static double[] decode( byte[] bytes ) {
+		double[] values = new double[ bytes.length / 8 ];
+		ByteBuffer.wrap( bytes ).asDoubleBuffer().get( values );
+		return values;
+	}
+
+	private static byte[] encodeFloats( double[] values ) {
+		ByteBuffer buffer = ByteBuffer.allocate( 4 * values.length );
+		for( double value : values ) {
+			buffer.putFloat( (float)value );
+		}
+		return buffer.array();
+	}
+
+	private static byte[] encodeQuantized( FlowField.QuantizedValues quantized ) {
+		ByteBuffer buffer = ByteBuffer.allocate( 16 + 2 * quantized.values.length );
+		buffer.putDouble( quantized.min );
+		buffer.putDouble( quantized.max );
+		buffer.asShortBuffer().put( quantized.values );
+		return buffer.array();
+	}
+
+	private static FlowField.QuantizedValues decodeQuantized( byte[] bytes ) {
+		ByteBuffer buffer = ByteBuffer.wrap( bytes );
+		double min = buffer.getDouble();
+		double max = buffer.getDouble();
+		short[] values = new short[ buffer.remaining() / 2 ];
+		buffer.asShortBuffer().get( values );
+		return new FlowField.QuantizedValues( values, min, max );
+	}
+
+	private static double[] decodeFloats( byte[] bytes ) {
+		FloatBuffer buffer = ByteBuffer.wrap( bytes ).asFloatBuffer();
+		double[] values = new double[ buffer.remaining() ];
+		for( int index = 0; index < values.length; index++ ) {
+			values[ index ] = buffer.get( index );
+		}
+		return values;
+	}
+
+	private static class Chunk {
+
+		private final int type;
+
+		private final String name;
+
+		private final int compression;
+
+		// The size of the chunk data before compression
+		private final int size;
+
+		private final byte[] bytes;
+
+		Chunk( int type, String name, int compression, int size, byte[] bytes ) {
+			this.type = type;
+			this.name = name;
+			this.compression = compression;
+			this.size = size;
+			this.bytes = bytes;
+		}
+
+		static Chunk deflate( int type, String name, byte[] data ) {
+			Deflater deflater = new Deflater();
+			try {
+				deflater.setInput( data );
+				deflater.finish();
+				ByteArrayOutputStream output = new ByteArrayOutputStream( Math.max( 64, data.length / 2 ) );
+				byte[] buffer = new byte[ 8192 ];
+				while( !deflater.finished() ) {
+					output.write( buffer, 0, deflater.deflate( buffer ) );
+				}
+				return new Chunk( type, name, DEFLATED, data.length, output.toByteArray() );
+			} finally {
+				deflater.end();
+			}
+		}
+
+		Chunk withBytes( byte[] bytes ) {
+			return new Chunk( type, name, compression, size, bytes );
+		}
+
+		byte[] decode() throws IOException {
+			if( compression == STORED ) return bytes;
+			if( compression != DEFLATED ) throw new IOException( "Unsupported chunk compression: " + compression );
+
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput( bytes );
+				byte[] data = new byte[ size ];
+				int offset = 0;
+				while( offset < size && !inflater.finished() ) {
+					int count = inflater.inflate( data, offset, size - offset );
+					if( count == 0 && inflater.needsInput() ) break;
+					offset += count;
+				}
+				if( offset != size ) throw new IOException( "Flow chunk is truncated" );
+				return data;
+			} catch( DataFormatException exception ) {
+				throw new IOException( "Flow chunk is corrupt", exception );
+			} finally {
+				inflater.end();
+			}
+		}
+
+		byte[] decodeUnchecked() {
+			try {
+				return decode();
+			} catch( IOException exception ) {
+				throw new UncheckedIOException( exception );
+			}
+		}
+
 	}
 
 }
@@ -1,7 +1,48 @@
 package com.avereon.aveon;
 
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A structured grid of flow values over a rectangular region. The grid has
+ * {@code xCount} by {@code yCount} nodes evenly spaced between the minimum and
+ * maximum coordinates. Each {@link Channel} stores one value per node in row
+ * major order, that is, the value for node (i, j) is at index
+ * {@code j * xCount + i}.
+ * <p>
+ * The channel values are stored with the field {@link Precision}. Values are
+ * always read and written as doubles, the conversion to and from the storage
+ * precision happens when the values are accessed.
+ */
 public class FlowField {
 
+	public enum Channel {
+		PRESSURE,
+		STREAM,
+		POTENTIAL,
+		VELOCITY_X,
+		VELOCITY_Y
+	}
+
+	public enum Precision {
+		/**
+		 * Store values as 64-bit doubles.
+		 */
+		DOUBLE,
+		/**
+		 * Store values as 32-bit floats.
+		 */
+		FLOAT,
+		/**
+		 * Store values as 16-bit integers quantized between the minimum and
+		 * maximum finite value of each channel. NaN values are preserved and
+		 * infinite values are clamped to the channel range.
+		 */
+		QUANTIZED
+	}
+
 	double xMin;
 
 	double xMax;
@@ -10,10 +51,462 @@ public class FlowField {
 
 	double yMax;
 
+	int xCount;
+
+	int yCount;
+
+	private Precision precision;
+
+	private final Map<Channel, Storage> channels;
+
+	public FlowField() {
+		this.precision = Precision.DOUBLE;
+		this.channels = new EnumMap<>( Channel.class );
+	}
+
+	public FlowField( double xMin, double yMin, double xMax, double yMax, int xCount, int yCount ) {
+		this();
+		setGrid( xMin, yMin, xMax, yMax, xCount, yCount );
+	}
+
+	/**
+	 * Set the grid extent and node counts. Changing the grid removes all the
+	 * channel data.
+	 *
+	 * @param xMin The minimum X coordinate
+	 * @param yMin The minimum Y coordinate
+	 * @param xMax The maximum X coordinate
+	 * @param yMax The maximum Y coordinate
+	 * @param xCount The number of nodes in the X direction
+	 * @param yCount The number of nodes in the Y direction
+	 */
+	public void setGrid( double xMin, double yMin, double xMax, double yMax, int xCount, int yCount ) {
+		if( xCount < 2 || yCount < 2 ) throw new IllegalArgumentException( "Grid must have at least two nodes in each direction" );
+		this.xMin = xMin;
+		this.yMin = yMin;
+		this.xMax = xMax;
+		this.yMax = yMax;
+		this.xCount = xCount;
+		this.yCount = yCount;
+		channels.clear();
+	}
+
+	public double getXMin() {
+		return xMin;
+	}
+
+	public double getXMax() {
+		return xMax;
+	}
+
+	public double getYMin() {
+		return yMin;
+	}
+
+	public double getYMax() {
+		return yMax;
+	}
+
+	public int getXCount() {
+		return xCount;
+	}
+
+	public int getYCount() {
+		return yCount;
+	}
+
+	public double getX( int i ) {
+		return xMin + (xMax - xMin) * i / (xCount - 1);
+	}
+
+	public double getY( int j ) {
+		return yMin + (yMax - yMin) * j / (yCount - 1);
+	}
+
+	public Precision getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * Set the storage precision. Existing channel values are converted to the
+	 * new precision.
+	 *
+	 * @param precision The storage precision
+	 */
+	public void setPrecision( Precision precision ) {
+		if( precision == this.precision ) return;
+		this.precision = precision;
+		channels.replaceAll( ( channel, storage ) -> createStorage( storage.toArray() ) );
+	}
+
+	public boolean hasChannel( Channel channel ) {
+		return channels.containsKey( channel );
+	}
+
+	/**
+	 * Get a copy of the channel values in row major order.
+	 *
+	 * @param channel The channel
+	 * @return The channel values or an array of NaN if the channel does not
+	 * exist yet
+	 */
+	public double[] getValues( Channel channel ) {
+		Storage storage = channels.get( channel );
+		if( storage != null ) return storage.toArray();
+		double[] values = new double[ xCount * yCount ];
+		Arrays.fill( values, Double.NaN );
+		return values;
+	}
+
+	/**
+	 * Set all the channel values in row major order. This is the preferred way
+	 * to fill a quantized channel since the quantization range is computed from
+	 * all the values at once.
+	 *
+	 * @param channel The channel
+	 * @param values The channel values
+	 */
+	public void setValues( Channel channel, double[] values ) {
+		if( values.length != xCount * yCount ) throw new IllegalArgumentException( "Value count does not match grid size" );
+		channels.put( channel, createStorage( values ) );
+	}
+
+	/**
+	 * Set the channel values from a supplier that is not called until the
+	 * channel values are first accessed. This allows stored channels to be
+	 * decoded only when they are needed.
+	 *
+	 * @param channel The channel
+	 * @param values The supplier of the channel values in row major order
+	 */
+	void setValues( Channel channel, Supplier<double[]> values ) {
+		channels.put( channel, new LazyStorage( () -> {
+			double[] array = values.get();
+			if( array.length != xCount * yCount ) throw new IllegalStateException( "Value count does not match grid size" );
+			return createStorage( array );
+		} ) );
+	}
+
+	/**
+	 * Get the stored values of a quantized channel, without converting them
+	 * to doubles.
+	 *
+	 * @param channel The channel
+	 * @return The quantized values or null if the channel is not stored as
+	 * quantized values
+	 */
+	QuantizedValues getQuantizedValues( Channel channel ) {
+		Storage storage = channels.get( channel );
+		if( storage instanceof LazyStorage lazy ) storage = lazy.getStorage();
+		if( !(storage instanceof QuantizedStorage quantized) ) return null;
+		return new QuantizedValues( quantized.values.clone(), quantized.min, quantized.max );
+	}
+
+	/**
+	 * Set the stored values of a quantized channel from a supplier that is not
+	 * called until the channel values are first accessed. The values are used
+	 * as they are if the field precision is quantized, so they are not
+	 * quantized a second time.
+	 *
+	 * @param channel The channel
+	 * @param values The supplier of the quantized values in row major order
+	 */
+	void setQuantizedValues( Channel channel, Supplier<QuantizedValues> values ) {
+		channels.put( channel, new LazyStorage( () -> {
+			QuantizedValues quantized = values.get();
+			if( quantized.values.length != xCount * yCount ) throw new IllegalStateException( "Value count does not match grid size" );
+			QuantizedStorage storage = new QuantizedStorage( quantized );
+			return precision == Precision.QUANTIZED ? storage : createStorage( storage.toArray() );
+		} ) );
+	}
+
+	/**
+	 * Copy one row of channel values into the target array. The row is filled
+	 * with NaN if the channel does not exist.
+	 *
+	 * @param channel The channel
+	 * @param j The row index
+	 * @param row The target array with room for at least xCount values
+	 */
+	public void getRow( Channel channel, int j, double[] row ) {
+		Storage storage = channels.get( channel );
+		if( storage == null ) {
+			Arrays.fill( row, 0, xCount, Double.NaN );
+		} else {
+			storage.copy( j * xCount, row, xCount );
+		}
+	}
+
+	/**
+	 * Get a channel value. Reading a channel that does not exist does not
+	 * create it.
+	 *
+	 * @param channel The channel
+	 * @param i The column index
+	 * @param j The row index
+	 * @return The value or NaN if the channel does not exist
+	 */
+	public double get( Channel channel, int i, int j ) {
+		Storage storage = channels.get( channel );
+		return storage == null ? Double.NaN : storage.get( j * xCount + i );
+	}
+
+	public void set( Channel channel, int i, int j, double value ) {
+		getStorage( channel ).set( j * xCount + i, value );
+	}
+
 	/**
 	 * Mark the data in the flow field invalid.
  	 */
 	public void invalidate() {
+		channels.clear();
+	}
+
+	private Storage getStorage( Channel channel ) {
+		return channels.computeIfAbsent( channel, k -> createStorage( new double[ xCount * yCount ] ) );
+	}
+
+	private Storage createStorage( double[] values ) {
+		return switch( precision ) {
+			case DOUBLE -> new DoubleStorage( values.clone() );
+			case FLOAT -> new FloatStorage( values );
+			case QUANTIZED -> new QuantizedStorage( values );
+		};
+	}
+
+	private static abstract class Storage {
+
+		abstract double get( int index );
+
+		abstract void set( int index, double value );
+
+		abstract int size();
+
+		void copy( int from, double[] target, int count ) {
+			for( int index = 0; index < count; index++ ) {
+				target[ index ] = get( from + index );
+			}
+		}
+
+		double[] toArray() {
+			double[] values = new double[ size() ];
+			copy( 0, values, values.length );
+			return values;
+		}
+
+	}
+
+	/**
+	 * Creates the channel storage from a supplier when a value is first
+	 * accessed. Only creating the storage takes a lock, reading values after
+	 * that does not.
+	 */
+	private class LazyStorage extends Storage {
+
+		private Supplier<Storage> supplier;
+
+		private volatile Storage storage;
+
+		LazyStorage( Supplier<Storage> supplier ) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		double get( int index ) {
+			return getStorage().get( index );
+		}
+
+		@Override
+		void set( int index, double value ) {
+			getStorage().set( index, value );
+		}
+
+		@Override
+		int size() {
+			return xCount * yCount;
+		}
+
+		@Override
+		void copy( int from, double[] target, int count ) {
+			getStorage().copy( from, target, count );
+		}
+
+		private Storage getStorage() {
+			Storage storage = this.storage;
+			if( storage != null ) return storage;
+			synchronized( this ) {
+				if( this.storage == null ) {
+					this.storage = supplier.get();
+					supplier = null;
+				}
+				return this.storage;
+			}
+		}
+
+	}
+
+	private static class DoubleStorage extends Storage {
+
+		private final double[] values;
+
+		DoubleStorage( double[] values ) {
+			this.values = values;
+		}
+
+		@Override
+		double get( int index ) {
+			return values[ index ];
+		}
+
+		@Override
+		void set( int index, double value ) {
+			values[ index ] = value;
+		}
+
+		@Override
+		int size() {
+			return values.length;
+		}
+
+		@Override
+		void copy( int from, double[] target, int count ) {
+			System.arraycopy( values, from, target, 0, count );
+		}
+
+	}
+
+	private static class FloatStorage extends Storage {
+
+		private final float[] values;
+
+		FloatStorage( double[] values ) {
+			this.values = new float[ values.length ];
+			for( int index = 0; index < values.length; index++ ) {
+				this.values[ index ] = (float)values[ index ];
+			}
+		}
+
+		@Override
+		double get( int index ) {
+			return values[ index ];
+		}
+
+		@Override
+		void set( int index, double value ) {
+			values[ index ] = (float)value;
+		}
+
+		@Override
+		int size() {
+			return values.length;
+		}
+
+	}
+
+	/**
+	 * Stores values as 16-bit integers with a channel scale and offset. The
+	 * smallest short value is reserved for NaN. Setting a single value outside
+	 * the current range widens the range and quantizes all the values again.
+	 */
+	private static class QuantizedStorage extends Storage {
+
+		private static final short NAN = Short.MIN_VALUE;
+
+		private static final int STEPS = 2 * Short.MAX_VALUE;
+
+		private final short[] values;
+
+		private double offset;
+
+		private double scale;
+
+		private double min;
+
+		private double max;
+
+		QuantizedStorage( double[] values ) {
+			this.values = new short[ values.length ];
+
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for( double value : values ) {
+				if( !Double.isFinite( value ) ) continue;
+				if( value < min ) min = value;
+				if( value > max ) max = value;
+			}
+			if( min > max ) min = max = 0;
+			encode( values, min, max );
+		}
+
+		QuantizedStorage( QuantizedValues quantized ) {
+			this.values = quantized.values;
+			setRange( quantized.min, quantized.max );
+		}
+
+		@Override
+		double get( int index ) {
+			short value = values[ index ];
+			if( value == NAN ) return Double.NaN;
+			return offset + (value + Short.MAX_VALUE) * scale;
+		}
+
+		@Override
+		void set( int index, double value ) {
+			if( Double.isFinite( value ) && (value < min || value > max) ) {
+				// Widen the range with some headroom so filling a channel one value
+				// at a time does not quantize all the values again for every value
+				double span = Math.max( max - min, Math.abs( value ) ) * 0.5;
+				double[] decoded = toArray();
+				encode( decoded, Math.min( min, value - (value < min ? span : 0) ), Math.max( max, value + (value > max ? span : 0) ) );
+			}
+			values[ index ] = quantize( value );
+		}
+
+		@Override
+		int size() {
+			return values.length;
+		}
+
+		private void encode( double[] values, double min, double max ) {
+			setRange( min, max );
+			for( int index = 0; index < values.length; index++ ) {
+				this.values[ index ] = quantize( values[ index ] );
+			}
+		}
+
+		private void setRange( double min, double max ) {
+			this.min = min;
+			this.max = max;
+			this.offset = min;
+			this.scale = max > min ? (max - min) / STEPS : 0;
+		}
+
+		private short quantize( double value ) {
+			if( Double.isNaN( value ) ) return NAN;
+			if( scale == 0 ) return -Short.MAX_VALUE;
+			double clamped = Math.max( min, Math.min( max, value ) );
+			return (short)(Math.round( (clamped - offset) / scale ) - Short.MAX_VALUE);
+		}
+
+	}
+
+	/**
+	 * The stored values of a quantized channel and the range they are
+	 * quantized over. The smallest short value is NaN.
+	 */
+	static class QuantizedValues {
+
+		final short[] values;
+
+		final double min;
+
+		final double max;
+
+		QuantizedValues( short[] values, double min, double max ) {
+			this.values = values;
+			this.min = min;
+			this.max = max;
+		}
 
 	}
 
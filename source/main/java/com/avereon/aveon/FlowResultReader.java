@@ -0,0 +1,209 @@
+package com.avereon.aveon;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the columnar flow result files written by {@link FlowResultWriter}.
+ * Only the footer is read when the file is opened. Reading a column reads and
+ * decompresses only the blocks of that column.
+ */
+public class FlowResultReader implements Closeable {
+
+	private final SeekableByteChannel channel;
+
+	private final Map<String, Table> tables;
+
+	private FlowResultReader( SeekableByteChannel channel ) throws IOException {
+		this.channel = channel;
+		this.tables = new LinkedHashMap<>();
+		readFooter();
+	}
+
+	/**
+	 * Open a result file.
+	 *
+	 * @param file The result file
+	 * @return The reader
+	 * @throws IOException If the file is not a result file
+	 */
+	public static FlowResultReader open( Path file ) throws IOException {
+		FileChannel channel = FileChannel.open( file, StandardOpenOption.READ );
+		try {
+			return new FlowResultReader( channel );
+		} catch( IOException | RuntimeException exception ) {
+			channel.close();
+			throw exception;
+		}
+	}
+
+	public Set<String> getTableNames() {
+		return Collections.unmodifiableSet( tables.keySet() );
+	}
+
+	public long getRowCount( String table ) {
+		return getTable( table ).rows;
+	}
+
+	public List<String> getColumnNames( String table ) {
+		return List.copyOf( getTable( table ).columns.keySet() );
+	}
+
+	/**
+	 * Read all the values of an integer column.
+	 *
+	 * @param table The table name
+	 * @param column The column name
+	 * @return The column values
+	 * @throws IOException If the column cannot be read
+	 */
+	public int[] readInts( String table, String column ) throws IOException {
+		Column values = getColumn( table, column, FlowResultWriter.Type.INT );
+		int[] result = new int[ Math.toIntExact( getTable( table ).rows ) ];
+		int index = 0;
+		for( FlowResultWriter.Block block : values.blocks ) {
+			ByteBuffer buffer = readBlock( block, FlowResultWriter.Type.INT );
+			buffer.asIntBuffer().get( result, index, block.rows );
+			index += block.rows;
+		}
+		return result;
+	}
+
+	/**
+	 * Read all the values of a double column.
+	 *
+	 * @param table The table name
+	 * @param column The column name
+	 * @return The column values
+	 * @throws IOException If the column cannot be read
+	 */
+	public double[] readDoubles( String table, String column ) throws IOException {
+		Column values = getColumn( table, column, FlowResultWriter.Type.DOUBLE );
+		double[] result = new double[ Math.toIntExact( getTable( table ).rows ) ];
+		int index = 0;
+		for( FlowResultWriter.Block block : values.blocks ) {
+			ByteBuffer buffer = readBlock( block, FlowResultWriter.Type.DOUBLE );
+			buffer.asDoubleBuffer().get( result, index, block.rows );
+			index += block.rows;
+		}
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void readFooter() throws IOException {
+		long size = channel.size();
+		if( size < 20 ) throw new IOException( "Not a flow result file" );
+
+		ByteBuffer header = read( 0, 8 );
+		if( header.getInt() != FlowResultWriter.MAGIC ) throw new IOException( "Not a flow result file" );
+		int version = header.getInt();
+		if( version < 1 || version > FlowResultWriter.VERSION ) throw new IOException( "Unsupported flow result version: " + version );
+
+		ByteBuffer trailer = read( size - 12, 12 );
+		long footer = trailer.getLong();
+		if( trailer.getInt() != FlowResultWriter.MAGIC ) throw new IOException( "Flow result file is incomplete" );
+		if( footer < 8 || footer > size - 12 ) throw new IOException( "Invalid flow result footer" );
+
+		ByteBuffer bytes = read( footer, (int)(size - 12 - footer) );
+		DataInputStream data = new DataInputStream( new ByteArrayInputStream( bytes.array() ) );
+		int tableCount = data.readInt();
+		for( int table = 0; table < tableCount; table++ ) {
+			String name = data.readUTF();
+			long rows = data.readLong();
+			int columnCount = data.readInt();
+			Map<String, Column> columns = new LinkedHashMap<>();
+			for( int column = 0; column < columnCount; column++ ) {
+				String columnName = data.readUTF();
+				FlowResultWriter.Type type = FlowResultWriter.Type.values()[ data.readUnsignedByte() ];
+				int blockCount = data.readInt();
+				List<FlowResultWriter.Block> blocks = new ArrayList<>( blockCount );
+				for( int block = 0; block < blockCount; block++ ) {
+					blocks.add( new FlowResultWriter.Block( data.readLong(), data.readInt(), data.readInt() ) );
+				}
+				columns.put( columnName, new Column( type, blocks ) );
+			}
+			tables.put( name, new Table( rows, columns ) );
+		}
+	}
+
+	private ByteBuffer readBlock( FlowResultWriter.Block block, FlowResultWriter.Type type ) throws IOException {
+		ByteBuffer compressed = read( block.offset, block.length );
+		byte[] values = new byte[ block.rows * type.width ];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput( compressed.array() );
+			int offset = 0;
+			while( offset < values.length && !inflater.finished() ) {
+				int count = inflater.inflate( values, offset, values.length - offset );
+				if( count == 0 && inflater.needsInput() ) break;
+				offset += count;
+			}
+			if( offset != values.length ) throw new IOException( "Flow result block is truncated" );
+		} catch( DataFormatException exception ) {
+			throw new IOException( "Flow result block is corrupt", exception );
+		} finally {
+			inflater.end();
+		}
+		return ByteBuffer.wrap( values );
+	}
+
+	private synchronized ByteBuffer read( long position, int length ) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate( length );
+		channel.position( position );
+		while( buffer.hasRemaining() ) {
+			if( channel.read( buffer ) < 0 ) throw new EOFException( "Unexpected end of flow result file" );
+		}
+		return buffer.flip();
+	}
+
+	private Table getTable( String name ) {
+		Table table = tables.get( name );
+		if( table == null ) throw new IllegalArgumentException( "Unknown table: " + name );
+		return table;
+	}
+
+	private Column getColumn( String table, String name, FlowResultWriter.Type type ) {
+		Column column = getTable( table ).columns.get( name );
+		if( column == null ) throw new IllegalArgumentException( "Unknown column: " + table + "." + name );
+		if( column.type != type ) throw new IllegalArgumentException( "Column " + table + "." + name + " is not " + type );
+		return column;
+	}
+
+	private static class Table {
+
+		private final long rows;
+
+		private final Map<String, Column> columns;
+
+		Table( long rows, Map<String, Column> columns ) {
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+	}
+
+	private static class Column {
+
+		private final FlowResultWriter.Type type;
+
+		private final List<FlowResultWriter.Block> blocks;
+
+		Column( FlowResultWriter.Type type, List<FlowResultWriter.Block> blocks ) {
+			this.type = type;
+			this.blocks = blocks;
+		}
+
+	}
+
+}
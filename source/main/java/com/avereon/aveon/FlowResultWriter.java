@@ -0,0 +1,266 @@
+package com.avereon.aveon;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes flow solver results for many cases to a columnar file. There are two
+ * tables:
+ * <ul>
+ *   <li>cases - One row per case with the case id, angle of attack and the
+ *   lift, moment and drag coefficients</li>
+ *   <li>panels - One row per surface panel with the case id, the panel X
+ *   coordinate and the pressure and skin friction coefficients</li>
+ * </ul>
+ * Every column has a fixed width type. The values of each column are collected
+ * in blocks of rows and each full block is compressed and written on its own,
+ * so cases can be written as they finish and only one block per column is held
+ * in memory. The footer at the end of the file indexes every block of every
+ * column, so a reader can read a single column without reading the others.
+ * See {@link FlowResultReader}.
+ * <p>
+ * The file layout is:
+ * <ul>
+ *   <li>The magic number and version</li>
+ *   <li>The compressed column blocks, in the order they filled</li>
+ *   <li>The footer with the tables, columns and block index</li>
+ *   <li>The footer offset and the magic number</li>
+ * </ul>
+ */
+public class FlowResultWriter implements Closeable {
+
+	public static final String CASES = "cases";
+
+	public static final String PANELS = "panels";
+
+	public static final String CASE = "case";
+
+	public static final String ALPHA = "alpha";
+
+	public static final String CL = "cl";
+
+	public static final String CM = "cm";
+
+	public static final String CD = "cd";
+
+	public static final String X = "x";
+
+	public static final String CP = "cp";
+
+	public static final String CF = "cf";
+
+	static final int MAGIC = 0x41565253;
+
+	static final int VERSION = 1;
+
+	static final int DEFAULT_BLOCK_ROWS = 4096;
+
+	enum Type {
+		INT( 4 ),
+		DOUBLE( 8 );
+
+		final int width;
+
+		Type( int width ) {
+			this.width = width;
+		}
+	}
+
+	private final DataOutputStream output;
+
+	private final Deflater deflater;
+
+	private final Table cases;
+
+	private final Table panels;
+
+	private long offset;
+
+	private boolean closed;
+
+	public FlowResultWriter( OutputStream output ) throws IOException {
+		this( output, DEFAULT_BLOCK_ROWS );
+	}
+
+	/**
+	 * Create a result writer.
+	 *
+	 * @param output The output stream, closed when the writer is closed
+	 * @param blockRows The number of rows in each column block
+	 * @throws IOException If the header cannot be written
+	 */
+	public FlowResultWriter( OutputStream output, int blockRows ) throws IOException {
+		if( blockRows < 1 ) throw new IllegalArgumentException( "Block rows must be at least one" );
+		this.output = new DataOutputStream( new BufferedOutputStream( output ) );
+		this.deflater = new Deflater();
+		this.cases = new Table( CASES, blockRows, new Column( CASE, Type.INT ), new Column( ALPHA, Type.DOUBLE ), new Column( CL, Type.DOUBLE ), new Column( CM, Type.DOUBLE ), new Column( CD, Type.DOUBLE ) );
+		this.panels = new Table( PANELS, blockRows, new Column( CASE, Type.INT ), new Column( X, Type.DOUBLE ), new Column( CP, Type.DOUBLE ), new Column( CF, Type.DOUBLE ) );
+
+		this.output.writeInt( MAGIC );
+		this.output.writeInt( VERSION );
+		this.offset = 8;
+	}
+
+	/**
+	 * Write the results of one case.
+	 *
+	 * @param id The case id
+	 * @param alpha The angle of attack
+	 * @param cl The lift coefficient
+	 * @param cm The moment coefficient
+	 * @param cd The drag coefficient
+	 * @param x The X coordinate of each panel
+	 * @param cp The pressure coefficient of each panel
+	 * @param cf The skin friction coefficient of each panel
+	 * @throws IOException If the results cannot be written
+	 */
+	public synchronized void writeCase( int id, double alpha, double cl, double cm, double cd, double[] x, double[] cp, double[] cf ) throws IOException {
+		if( closed ) throw new IOException( "Writer is closed" );
+		if( x.length != cp.length || x.length != cf.length ) throw new IllegalArgumentException( "Panel value counts do not match" );
+
+		Column[] columns = cases.columns;
+		columns[ 0 ].buffer.putInt( id );
+		columns[ 1 ].buffer.putDouble( alpha );
+		columns[ 2 ].buffer.putDouble( cl );
+		columns[ 3 ].buffer.putDouble( cm );
+		columns[ 4 ].buffer.putDouble( cd );
+		endRow( cases );
+
+		columns = panels.columns;
+		for( int panel = 0; panel < x.length; panel++ ) {
+			columns[ 0 ].buffer.putInt( id );
+			columns[ 1 ].buffer.putDouble( x[ panel ] );
+			columns[ 2 ].buffer.putDouble( cp[ panel ] );
+			columns[ 3 ].buffer.putDouble( cf[ panel ] );
+			endRow( panels );
+		}
+	}
+
+	/**
+	 * Write any partial blocks and the footer and close the output stream.
+	 *
+	 * @throws IOException If the file cannot be finished
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if( closed ) return;
+		closed = true;
+		try {
+			writeBlocks( cases );
+			writeBlocks( panels );
+
+			long footer = offset;
+			output.writeInt( 2 );
+			writeFooter( cases );
+			writeFooter( panels );
+			output.writeLong( footer );
+			output.writeInt( MAGIC );
+		} finally {
+			deflater.end();
+			output.close();
+		}
+	}
+
+	private void endRow( Table table ) throws IOException {
+		table.rows++;
+		table.blockRows++;
+		if( table.blockRows == table.maxBlockRows ) writeBlocks( table );
+	}
+
+	private void writeBlocks( Table table ) throws IOException {
+		if( table.blockRows == 0 ) return;
+		byte[] compressed = new byte[ 8192 ];
+		for( Column column : table.columns ) {
+			ByteBuffer buffer = column.buffer;
+			deflater.reset();
+			deflater.setInput( buffer.array(), 0, buffer.position() );
+			deflater.finish();
+
+			long start = offset;
+			while( !deflater.finished() ) {
+				int count = deflater.deflate( compressed );
+				output.write( compressed, 0, count );
+				offset += count;
+			}
+			column.blocks.add( new Block( start, (int)(offset - start), table.blockRows ) );
+			buffer.clear();
+		}
+		table.blockRows = 0;
+	}
+
+	private void writeFooter( Table table ) throws IOException {
+		output.writeUTF( table.name );
+		output.writeLong( table.rows );
+		output.writeInt( table.columns.length );
+		for( Column column : table.columns ) {
+			output.writeUTF( column.name );
+			output.writeByte( column.type.ordinal() );
+			output.writeInt( column.blocks.size() );
+			for( Block block : column.blocks ) {
+				output.writeLong( block.offset );
+				output.writeInt( block.length );
+				output.writeInt( block.rows );
+			}
+		}
+	}
+
+	private static class Table {
+
+		private final String name;
+
+		private final int maxBlockRows;
+
+		private final Column[] columns;
+
+		private long rows;
+
+		private int blockRows;
+
+		Table( String name, int maxBlockRows, Column... columns ) {
+			this.name = name;
+			this.maxBlockRows = maxBlockRows;
+			this.columns = columns;
+			for( Column column : columns ) {
+				column.buffer = ByteBuffer.allocate( maxBlockRows * column.type.width );
+			}
+		}
+
+	}
+
+	private static class Column {
+
+		private final String name;
+
+		private final Type type;
+
+		private final List<Block> blocks = new ArrayList<>();
+
+		private ByteBuffer buffer;
+
+		Column( String name, Type type ) {
+			this.name = name;
+			this.type = type;
+		}
+
+	}
+
+	static class Block {
+
+		final long offset;
+
+		final int length;
+
+		final int rows;
+
+		Block( long offset, int length, int rows ) {
+			this.offset = offset;
+			this.length = length;
+			this.rows = rows;
+		}
+
+	}
+
+}
@@ -13,6 +13,7 @@ import com.avereon.xenon.resource.Resource;
 import com.avereon.xenon.resource.OpenAssetRequest;
 import com.avereon.xenon.task.Task;
 import com.avereon.xenon.task.TaskEvent;
+import com.avereon.xenon.workpane.ToolException;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.scene.Group;
@@ -23,8 +24,13 @@ import javafx.scene.shape.*;
 import lombok.CustomLog;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @CustomLog
 public class FlowTool extends ProgramTool implements RunPauseResettable {
@@ -53,6 +59,8 @@ public class FlowTool extends ProgramTool implements RunPauseResettable {
 
 	private final ProgramAction resetAction;
 
+	private volatile Task<?> loadTask;
+
 	public FlowTool( XenonProgramProduct product, Resource resource ) {
 		super( product, resource );
 
@@ -95,6 +103,12 @@ public class FlowTool extends ProgramTool implements RunPauseResettable {
 		//flow.register( Flow2D.STREAM_FIELD, ( e ) -> redrawStreamField() );
 	}
 
+	@Override
+	protected void deallocate() throws ToolException {
+		// Stop loading the airfoil when the tool is closed
+		cancelLoadAirfoil();
+	}
+
 	@Override
 	protected void activate() {
 		pushAction( "runpause", runPauseAction );
@@ -292,16 +306,71 @@ public class FlowTool extends ProgramTool implements RunPauseResettable {
 		shape.strokeWidthProperty().bind( Bindings.divide( 1 / scale, widthProperty() ).divide( getScene().getWindow().getRenderScaleX() ) );
 	}
 
-	// THREAD Task
+	/**
+	 * Load the airfoil in a task. The airfoil is fetched, parsed and the geometry
+	 * used for display is computed in the task and then shown on the FX thread.
+	 * Each tool has its own task so several tools load their airfoils at the
+	 * same time.
+	 */
 	private void loadAirfoilPoints( String url ) {
 		if( url == null ) return;
+		getSettings().set( AIRFOIL_URL, url );
+
+		URI uri;
 		try {
-			getSettings().set( AIRFOIL_URL, url );
-			Airfoil airfoil = AirfoilStationPointCodec.loadStationPoints( new URL( url.trim() ).openStream() );
-			Platform.runLater( () -> setAirfoil( airfoil ) );
-		} catch( IOException exception ) {
-			log.atError( exception ).log( "Unable to load airfoil data" );
+			uri = toUri( url );
+		} catch( MalformedURLException | URISyntaxException exception ) {
+			log.atError( exception ).log( "Invalid airfoil URL: %s", url );
+			return;
 		}
+
+		cancelLoadAirfoil();
+		AirfoilCache cache = ((Aveon)getProduct()).getAirfoilCache();
+		// The task checks it is still the current load before showing the airfoil
+		AtomicReference<Task<?>> task = new AtomicReference<>();
+		task.set( Task.of( "Load airfoil", () -> {
+			try {
+				Airfoil airfoil = cache.load( uri );
+
+				// Compute the geometry used for display before leaving the task
+				airfoil.getDefinitionPoints();
+				airfoil.getCamber();
+				airfoil.getUpperInflections();
+				airfoil.getMaxY();
+
+				if( Thread.currentThread().isInterrupted() ) return;
+				Platform.runLater( () -> {
+					// The tool may have been closed or started another load while the airfoil was loading
+					if( loadTask == task.get() ) setAirfoil( airfoil );
+				} );
+			} catch( InterruptedIOException exception ) {
+				log.atDebug().log( "Airfoil load cancelled: %s", uri );
+			} catch( IOException exception ) {
+				log.atError( exception ).log( "Unable to load airfoil data" );
+			}
+		} ) );
+		loadTask = task.get();
+		getProgram().getTaskManager().submit( task.get() );
+	}
+
+	/**
+	 * Convert an airfoil URL to a URI. URLs are parsed as leniently as they
+	 * always have been, so a URL with characters that are not legal in a URI,
+	 * like spaces, is converted by quoting those characters.
+	 */
+	private static URI toUri( String url ) throws MalformedURLException, URISyntaxException {
+		URL parsed = new URL( url.trim() );
+		try {
+			return parsed.toURI();
+		} catch( URISyntaxException exception ) {
+			return new URI( parsed.getProtocol(), parsed.getUserInfo(), parsed.getHost(), parsed.getPort(), parsed.getPath(), parsed.getQuery(), parsed.getRef() );
+		}
+	}
+
+	private void cancelLoadAirfoil() {
+		Task<?> task = loadTask;
+		loadTask = null;
+		if( task != null ) task.cancel( true );
 	}
 
 }
@@ -0,0 +1,133 @@
+package com.avereon.aveon;
+
+import java.util.Objects;
+
+/**
+ * The parameters used to place points along the airfoil surfaces. A
+ * panelization has a panel count, a spacing law and a clustering amount. The
+ * spacing law determines where the points are concentrated and the clustering
+ * amount blends between linear spacing, with a clustering of zero, and the
+ * spacing law, with a clustering of one.
+ * <p>
+ * Panelizations are immutable and can be used as keys, the airfoil caches
+ * the surface points for each panelization it is asked for.
+ */
+public class Panelization {
+
+	public enum Spacing {
+		/**
+		 * Evenly spaced stations.
+		 */
+		LINEAR,
+		/**
+		 * Stations clustered at the leading and trailing edge.
+		 */
+		COSINE,
+		/**
+		 * Stations clustered at the leading edge.
+		 */
+		LEADING_EDGE,
+		/**
+		 * Stations clustered at the trailing edge.
+		 */
+		TRAILING_EDGE
+	}
+
+	/**
+	 * The panelization used for analysis calculations, like camber and
+	 * thickness.
+	 */
+	public static final Panelization ANALYSIS = new Panelization( 1000, Spacing.LINEAR );
+
+	/**
+	 * The default panelization for flow panels.
+	 */
+	public static final Panelization PANELS = new Panelization( 60, Spacing.COSINE );
+
+	private final int count;
+
+	private final Spacing spacing;
+
+	private final double clustering;
+
+	private int hash;
+
+	public Panelization( int count, Spacing spacing ) {
+		this( count, spacing, 1.0 );
+	}
+
+	/**
+	 * Create a new panelization.
+	 *
+	 * @param count The number of panels on each surface
+	 * @param spacing The spacing law
+	 * @param clustering The amount of clustering from 0.0 to 1.0
+	 */
+	public Panelization( int count, Spacing spacing, double clustering ) {
+		if( count < 1 ) throw new IllegalArgumentException( "Panel count must be at least one" );
+		if( !(clustering >= 0 && clustering <= 1) ) throw new IllegalArgumentException( "Clustering must be between zero and one" );
+		this.count = count;
+		this.spacing = Objects.requireNonNull( spacing );
+		// Adding zero turns negative zero into zero so equal panelizations have equal hash codes
+		this.clustering = clustering + 0.0;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public Spacing getSpacing() {
+		return spacing;
+	}
+
+	public double getClustering() {
+		return clustering;
+	}
+
+	/**
+	 * Get a copy of this panelization with a different panel count.
+	 *
+	 * @param count The number of panels on each surface
+	 * @return The new panelization
+	 */
+	public Panelization withCount( int count ) {
+		return new Panelization( count, spacing, clustering );
+	}
+
+	/**
+	 * Get the station for a point index. Index zero is the leading edge and
+	 * index {@code count} is the trailing edge.
+	 *
+	 * @param index The point index from 0 to count
+	 * @return The station from 0.0 to 1.0
+	 */
+	public double getStation( int index ) {
+		double linear = (double)index / count;
+		double clustered = switch( spacing ) {
+			case LINEAR -> linear;
+			case COSINE -> 0.5 - 0.5 * Math.cos( Math.PI * linear );
+			case LEADING_EDGE -> 1.0 - Math.cos( 0.5 * Math.PI * linear );
+			case TRAILING_EDGE -> Math.sin( 0.5 * Math.PI * linear );
+		};
+		return linear + (clustered - linear) * clustering;
+	}
+
+	@Override
+	public boolean equals( Object object ) {
+		if( object == this ) return true;
+		if( !(object instanceof Panelization that) ) return false;
+		return this.count == that.count && this.spacing == that.spacing && Double.compare( this.clustering, that.clustering ) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		if( hash == 0 ) hash = Objects.hash( count, spacing, clustering );
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "Panelization[count=" + count + ",spacing=" + spacing + ",clustering=" + clustering + "]";
+	}
+
+}
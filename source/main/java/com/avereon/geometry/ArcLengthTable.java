@@ -0,0 +1,203 @@
+package com.avereon.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arc length and curvature lookup tables for a sequence of connected cubic
+ * curves. Positions along the curves are given either as a distance from the
+ * start of the first curve or as a parameter, where the integer part is the
+ * curve index and the fractional part is the curve value. For example, the
+ * parameter 2.25 is the value 0.25 on the third curve.
+ * <p>
+ * Each curve is sampled at evenly spaced curve values. The distance to each
+ * sample is computed once with Gauss-Legendre quadrature. Converting a
+ * parameter to a distance integrates only from the nearest sample. Converting
+ * a distance to a parameter uses a binary search of the samples followed by
+ * a few Newton steps.
+ */
+public class ArcLengthTable {
+
+	private static final int DEFAULT_SAMPLES = 16;
+
+	private static final double TOLERANCE = 1e-13;
+
+	private final Cubic2D[] curves;
+
+	private final int samples;
+
+	// The distance from the start to each sample
+	private final double[] distances;
+
+	// The curvature at each sample
+	private final double[] curvatures;
+
+	public ArcLengthTable( List<Cubic2D> curves ) {
+		this( curves, DEFAULT_SAMPLES );
+	}
+
+	/**
+	 * Create the lookup tables for a sequence of curves.
+	 *
+	 * @param curves The curves
+	 * @param samples The number of spans to sample on each curve
+	 */
+	public ArcLengthTable( List<Cubic2D> curves, int samples ) {
+		if( samples < 1 ) throw new IllegalArgumentException( "Sample count must be at least one" );
+		this.curves = curves.toArray( new Cubic2D[ 0 ] );
+		this.samples = samples;
+
+		int count = this.curves.length * samples + 1;
+		this.distances = new double[ count ];
+		this.curvatures = new double[ count ];
+
+		double distance = 0;
+		int index = 0;
+		for( Cubic2D curve : this.curves ) {
+			for( int sample = 0; sample < samples; sample++ ) {
+				double t0 = (double)sample / samples;
+				double t1 = (double)(sample + 1) / samples;
+				distances[ index ] = distance;
+				curvatures[ index ] = curve.getCurvature( t0 );
+				distance += curve.getArcLength( t0, t1 );
+				index++;
+			}
+		}
+		distances[ index ] = distance;
+		curvatures[ index ] = this.curves.length == 0 ? 0 : this.curves[ this.curves.length - 1 ].getCurvature( 1 );
+	}
+
+	/**
+	 * Get the total length of the curves.
+	 *
+	 * @return The total length
+	 */
+	public double getLength() {
+		return distances[ distances.length - 1 ];
+	}
+
+	public int getCurveCount() {
+		return curves.length;
+	}
+
+	/**
+	 * Get the number of samples in the tables. There are samples at both ends
+	 * of each span, so this is one more than the number of spans.
+	 *
+	 * @return The number of samples
+	 */
+	public int getSampleCount() {
+		return distances.length;
+	}
+
+	public double getSampleDistance( int index ) {
+		return distances[ index ];
+	}
+
+	public double getSampleCurvature( int index ) {
+		return curvatures[ index ];
+	}
+
+	public double getSampleParameter( int index ) {
+		return (double)index / samples;
+	}
+
+	/**
+	 * Get the distance from the start to a parameter.
+	 *
+	 * @param parameter The parameter from zero to the curve count
+	 * @return The distance from the start
+	 */
+	public double getDistance( double parameter ) {
+		if( curves.length == 0 ) return 0;
+		parameter = Math.max( 0, Math.min( curves.length, parameter ) );
+		int sample = sampleIndex( parameter );
+		int curve = Math.min( sample / samples, curves.length - 1 );
+		double t0 = (double)(sample - curve * samples) / samples;
+		return distances[ sample ] + curves[ curve ].getArcLength( t0, parameter - curve );
+	}
+
+	/**
+	 * Get the parameter at a distance from the start. Distances outside the
+	 * length of the curves are clamped.
+	 *
+	 * @param distance The distance from the start
+	 * @return The parameter from zero to the curve count
+	 */
+	public double getParameter( double distance ) {
+		if( curves.length == 0 ) return 0;
+		if( distance <= 0 ) return 0;
+		if( distance >= getLength() ) return curves.length;
+
+		// Find the span that contains the distance
+		int sample = Arrays.binarySearch( distances, distance );
+		if( sample >= 0 ) return (double)sample / samples;
+		sample = Math.min( -sample - 2, distances.length - 2 );
+
+		int curve = Math.min( sample / samples, curves.length - 1 );
+		Cubic2D cubic = curves[ curve ];
+		double t0 = (double)(sample - curve * samples) / samples;
+		double t1 = t0 + 1.0 / samples;
+		double s0 = distances[ sample ];
+		double s1 = distances[ sample + 1 ];
+
+		// Start with the linear estimate and refine with Newton steps
+		double t = t0 + (t1 - t0) * (distance - s0) / (s1 - s0);
+		for( int iteration = 0; iteration < 8; iteration++ ) {
+			double error = s0 + cubic.getArcLength( t0, t ) - distance;
+			double speed = cubic.getSpeed( t );
+			if( speed == 0 ) break;
+			double next = Math.max( t0, Math.min( t1, t - error / speed ) );
+			if( Math.abs( next - t ) < TOLERANCE ) {
+				t = next;
+				break;
+			}
+			t = next;
+		}
+
+		return curve + t;
+	}
+
+	/**
+	 * Get the curvature at a parameter.
+	 *
+	 * @param parameter The parameter from zero to the curve count
+	 * @return The signed curvature
+	 */
+	public double getCurvature( double parameter ) {
+		if( curves.length == 0 ) return 0;
+		int curve = curveIndex( parameter );
+		return curves[ curve ].getCurvature( parameter - curve );
+	}
+
+	/**
+	 * Get the point at a parameter.
+	 *
+	 * @param parameter The parameter from zero to the curve count
+	 * @return The point on the curves
+	 */
+	public Point2D getPoint( double parameter ) {
+		if( curves.length == 0 ) return Point2D.ZERO;
+		int curve = curveIndex( parameter );
+		return curves[ curve ].eval( parameter - curve );
+	}
+
+	/**
+	 * Get the point at a distance from the start.
+	 *
+	 * @param distance The distance from the start
+	 * @return The point on the curves
+	 */
+	public Point2D getPointAtDistance( double distance ) {
+		return getPoint( getParameter( distance ) );
+	}
+
+	private int curveIndex( double parameter ) {
+		return Math.max( 0, Math.min( (int)parameter, curves.length - 1 ) );
+	}
+
+	private int sampleIndex( double parameter ) {
+		return Math.max( 0, Math.min( (int)(parameter * samples), distances.length - 2 ) );
+	}
+
+}
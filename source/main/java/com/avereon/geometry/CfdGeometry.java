@@ -178,7 +178,10 @@ public class CfdGeometry {
 //	}
 
 	/**
-	 * Find the intersections between two segmented paths.
+	 * Find the intersections between two segmented paths. Only the segment
+	 * pairs with overlapping bounds are tested, see
+	 * {@link #findCandidateSegments}. The intersections are in the order of the
+	 * segments in path a, then the segments in path b.
 	 *
 	 * @param a A segmented path
 	 * @param b Another segmented path
@@ -186,27 +189,115 @@ public class CfdGeometry {
 	 */
 	public static List<Point2D> findIntersections( SegmentedPath2D a, SegmentedPath2D b ) {
 		List<Point2D> intersections = new ArrayList<>();
+		List<Line2D> aSegments = a.getSegments();
+		List<Line2D> bSegments = b.getSegments();
 
-		for( Line2D aSegment : a.getSegments() ) {
-			for( Line2D bSegment : b.getSegments() ) {
-				Intersection2D intersection = aSegment.intersection( bSegment );
-				if( intersection.getType() == Intersection2D.Type.INTERSECTION ) intersections.addAll( Point2D.of( intersection.getPoints() ) );
-			}
+		for( long pair : findCandidateSegments( aSegments, bSegments ) ) {
+			Intersection2D intersection = aSegments.get( (int)(pair >>> 32) ).intersection( bSegments.get( (int)pair ) );
+			if( intersection.getType() == Intersection2D.Type.INTERSECTION ) intersections.addAll( Point2D.of( intersection.getPoints() ) );
 		}
 
 		return intersections;
 	}
 
+	/**
+	 * Find the pairs of segments, one from each list, with overlapping bounds.
+	 * Only these pairs can intersect. The segments are swept in order of their
+	 * minimum X coordinate while keeping the segments whose X range covers the
+	 * sweep position. Each new segment is only compared to the covering
+	 * segments of the other list, so the cost is proportional to the number of
+	 * segments and overlaps instead of the product of the segment counts.
+	 * <p>
+	 * Each pair is returned as the index in list a in the upper 32 bits and
+	 * the index in list b in the lower 32 bits. The pairs are sorted, so they
+	 * are ordered by the index in list a, then by the index in list b.
+	 *
+	 * @param a The first list of segments
+	 * @param b The second list of segments
+	 * @return The sorted candidate segment pairs
+	 */
+	static long[] findCandidateSegments( List<Line2D> a, List<Line2D> b ) {
+		int aCount = a.size();
+		int bCount = b.size();
+		if( aCount == 0 || bCount == 0 ) return new long[ 0 ];
+
+		// The segments of list b follow the segments of list a
+		int count = aCount + bCount;
+		double[] minX = new double[ count ];
+		double[] minY = new double[ count ];
+		double[] maxX = new double[ count ];
+		double[] maxY = new double[ count ];
+		for( int index = 0; index < count; index++ ) {
+			Line2D segment = index < aCount ? a.get( index ) : b.get( index - aCount );
+			minX[ index ] = Math.min( segment.x1, segment.x2 );
+			minY[ index ] = Math.min( segment.y1, segment.y2 );
+			maxX[ index ] = Math.max( segment.x1, segment.x2 );
+			maxY[ index ] = Math.max( segment.y1, segment.y2 );
+		}
+
+		Integer[] order = new Integer[ count ];
+		for( int index = 0; index < count; index++ ) {
+			order[ index ] = index;
+		}
+		Arrays.sort( order, Comparator.comparingDouble( index -> minX[ index ] ) );
+
+		int[] aActive = new int[ aCount ];
+		int[] bActive = new int[ bCount ];
+		int aActiveCount = 0;
+		int bActiveCount = 0;
+		long[] pairs = new long[ 16 ];
+		int pairCount = 0;
+
+		for( int segment : order ) {
+			double x = minX[ segment ];
+			boolean isA = segment < aCount;
+			int[] active = isA ? bActive : aActive;
+			int activeCount = isA ? bActiveCount : aActiveCount;
+
+			int index = 0;
+			while( index < activeCount ) {
+				int other = active[ index ];
+				if( maxX[ other ] < x ) {
+					// The other segment is behind the sweep
+					active[ index ] = active[ --activeCount ];
+					continue;
+				}
+				if( minY[ other ] <= maxY[ segment ] && maxY[ other ] >= minY[ segment ] ) {
+					if( pairCount == pairs.length ) pairs = Arrays.copyOf( pairs, 2 * pairCount );
+					long aIndex = isA ? segment : other;
+					long bIndex = (isA ? other : segment) - aCount;
+					pairs[ pairCount++ ] = aIndex << 32 | bIndex;
+				}
+				index++;
+			}
+
+			if( isA ) {
+				bActiveCount = activeCount;
+				aActive[ aActiveCount++ ] = segment;
+			} else {
+				aActiveCount = activeCount;
+				bActive[ bActiveCount++ ] = segment;
+			}
+		}
+
+		pairs = Arrays.copyOf( pairs, pairCount );
+		Arrays.sort( pairs );
+		return pairs;
+	}
+
 	/**
 	 * CAUTION: This method does not take into account the segment length and
 	 * might return unexpected results due to infinitely long segment lengths.
+	 * Because the segments are treated as infinitely long lines, a spatial index
+	 * cannot limit the segments that are checked, but the fit points are checked
+	 * in parallel.
 	 *
 	 * @param curvePoints
 	 * @param fitPoints
 	 * @return
 	 */
 	public static List<Double> findPathSegmentDistances( List<Point2D> curvePoints, List<Point2D> fitPoints ) {
-		return fitPoints.stream().map( p -> findDistanceToNearestSegment( p, curvePoints ) ).collect( Collectors.toList() );
+		return fitPoints.parallelStream().map( p -> findDistanceToNearestSegment( p, curvePoints ) ).collect( Collectors.toList() );
 	}
 
 	/**
@@ -238,8 +329,19 @@ public class CfdGeometry {
 		return findPathOffsets( curve.getPoints(), fit.getPoints() );
 	}
 
+	/**
+	 * Find the shortest offset between each point in a curve and a path. The
+	 * path is indexed once with a {@link PathIndex2D} and the curve points are
+	 * checked in parallel.
+	 *
+	 * @param curve The points from which to find the shortest offsets
+	 * @param path The path to check
+	 * @return the shortest offset between each curve point and the path
+	 * @see #findShortestPathOffset
+	 */
 	public static List<Double> findPathOffsets( List<Point2D> curve, List<Point2D> path ) {
-		return curve.stream().map( p -> findShortestPathOffset( p, path ) ).collect( Collectors.toList() );
+		PathIndex2D index = PathIndex2D.of( path );
+		return curve.parallelStream().map( index::findShortestPathOffset ).collect( Collectors.toList() );
 	}
 
 	/**
@@ -271,16 +373,35 @@ public class CfdGeometry {
 		return result;
 	}
 
+	/**
+	 * Find the distance between each point and the nearest curve point. The
+	 * curve is indexed once with a {@link PathIndex2D} and the points are
+	 * checked in parallel.
+	 *
+	 * @param points The points from which to find the distances
+	 * @param curvePoints The curve points
+	 * @return the distance between each point and the nearest curve point
+	 */
 	public static List<Double> findPointDistances( List<Point2D> points, List<Point2D> curvePoints ) {
-		return points.stream().map( p -> findSmallestDistance( p, curvePoints ) ).collect( Collectors.toList() );
+		PathIndex2D index = PathIndex2D.of( curvePoints );
+		return points.parallelStream().map( index::findSmallestDistance ).collect( Collectors.toList() );
 	}
 
 	public static Double findSmallestDistance( Point2D anchor, List<Point2D> path ) {
 		return anchor.distance( findNearestPoint( anchor, path ) );
 	}
 
+	/**
+	 * Find the nearest curve point to each point. The curve is indexed once
+	 * with a {@link PathIndex2D} and the points are checked in parallel.
+	 *
+	 * @param points The points from which to find the nearest curve points
+	 * @param curvePoints The curve points
+	 * @return the nearest curve point to each point
+	 */
 	public static List<Point2D> findNearestPoints( List<Point2D> points, List<Point2D> curvePoints ) {
-		return points.stream().map( p -> findNearestPoint( p, curvePoints ) ).collect( Collectors.toList() );
+		PathIndex2D index = PathIndex2D.of( curvePoints );
+		return points.parallelStream().map( index::findNearestPoint ).collect( Collectors.toList() );
 	}
 
 	/**
@@ -307,16 +428,26 @@ public class CfdGeometry {
 
 	/**
 	 * Calculate the areas of closed sections between two paths. If there are no
-	 * closed areas between the paths then an empty list is returned.
+	 * closed areas between the paths then an empty list is returned. The areas
+	 * are the same as the areas of the polygons from {@link #findPolygons}, but
+	 * are accumulated with Green's theorem directly from the paths without
+	 * creating the polygons.
 	 *
 	 * @param a The first path
 	 * @param b The second path
 	 * @return a list of the closed area between the two paths
 	 */
 	public static List<Double> findAreas( List<Point2D> a, List<Point2D> b ) {
-		List<List<Point2D>> polygons = findPolygons( a, b );
-		if( polygons.size() == 0 ) return List.of();
-		return polygons.stream().map( CfdGeometry::calcPolygonArea ).collect( Collectors.toList() );
+		List<Double> areas = new ArrayList<>();
+		findPolygons( a, b, ( c, cStart, cEnd, d, dStart, dEnd, start, end ) -> {
+			double area = calcPathArea( start, c, cStart, cEnd, end ) - calcPathArea( start, d, dStart, dEnd, end );
+
+			// Orient the area the same way as toCcwPolygon
+			Point2D pB = findNextPoint( start, c, cStart, cEnd, end );
+			Point2D pC = findNextPoint( start, d, dStart, dEnd, end );
+			areas.add( Geometry.getSpin( start.toArray(), pB.toArray(), pC.toArray() ) > 0 ? area : -area );
+		} );
+		return areas;
 	}
 
 	/**
@@ -344,7 +475,34 @@ public class CfdGeometry {
 	 */
 	public static List<List<Point2D>> findPolygons( List<Point2D> a, List<Point2D> b ) {
 		List<List<Point2D>> polygons = new ArrayList<>();
+		findPolygons( a, b, ( c, cStart, cEnd, d, dStart, dEnd, start, end ) -> {
+			List<Point2D> e = new ArrayList<>( cEnd - cStart + 2 );
+			e.add( start );
+			e.addAll( c.subList( cStart, cEnd ) );
+			e.add( end );
+
+			List<Point2D> f = new ArrayList<>( dEnd - dStart + 2 );
+			f.add( start );
+			f.addAll( d.subList( dStart, dEnd ) );
+			f.add( end );
+
+			polygons.add( toCcwPolygon( e.stream().distinct().toList(), f.stream().distinct().toList() ) );
+		} );
+		return polygons;
+	}
 
+	/**
+	 * Walk two ordered paths together and report each section closed between
+	 * two consecutive intersections. Both paths only move forward, so for each
+	 * segment in path a only the segments in path b after the last
+	 * intersection are checked, and of those only the segments with
+	 * overlapping bounds from {@link #findCandidateSegments}.
+	 *
+	 * @param a Segmented path a
+	 * @param b Segmented path b
+	 * @param consumer The consumer of the closed sections
+	 */
+	private static void findPolygons( List<Point2D> a, List<Point2D> b, SectionConsumer consumer ) {
 		// Performance improvement to use the smallest count on the outside loop
 		if( a.size() > b.size() ) {
 			List<Point2D> c = b;
@@ -354,50 +512,36 @@ public class CfdGeometry {
 
 		List<Line2D> aSegments = Point2D.toSegments( a );
 		List<Line2D> bSegments = Point2D.toSegments( b );
+		long[] pairs = findCandidateSegments( aSegments, bSegments );
 
 		int aOffset = 0;
 		int bOffset = 0;
 		int aCount = aSegments.size();
-		int bCount = bSegments.size();
-		List<Point2D> c = new ArrayList<>();
-		List<Point2D> d = new ArrayList<>();
+		Point2D start = null;
 		Point2D priorIntersection = null;
 
 		for( int aIndex = 0; aIndex < aCount; aIndex++ ) {
-			for( int bIndex = bOffset; bIndex < bCount; bIndex++ ) {
-				Line2D aSegment = aSegments.get( aIndex );
-				Line2D bSegment = bSegments.get( bIndex );
-				Intersection2D intersection = aSegment.intersection( bSegment );
+			int pair = findCandidate( pairs, aIndex, bOffset );
+			while( pair < pairs.length && (int)(pairs[ pair ] >>> 32) == aIndex ) {
+				int bIndex = (int)pairs[ pair ];
+				Intersection2D intersection = aSegments.get( aIndex ).intersection( bSegments.get( bIndex ) );
 
 				// If segments are the same jump to the next segments
-				if( intersection.getType() == Intersection2D.Type.SAME ) aIndex++;
+				if( intersection.getType() == Intersection2D.Type.SAME ) {
+					if( ++aIndex == aCount ) break;
+					pair = findCandidate( pairs, aIndex, bIndex + 1 );
+					continue;
+				}
+
+				pair++;
 				if( intersection.getType() != Intersection2D.Type.INTERSECTION ) continue;
 
-				Point2D intersectionPoint = Point2D.of( intersection.getPoints()[0] );
+				Point2D intersectionPoint = Point2D.of( intersection.getPoints()[ 0 ] );
 
 				if( !Objects.equals( intersectionPoint, priorIntersection ) ) {
-					if( priorIntersection != null ) {
-						// Add points up to intersecting segments
-						c.addAll( a.subList( aOffset, aIndex + 1 ) );
-						d.addAll( b.subList( bOffset, bIndex + 1 ) );
-
-						// Add closing intersection
-						c.add( intersectionPoint );
-						d.add( intersectionPoint );
-
-						// Add polygon
-						List<Point2D> e = c.stream().distinct().collect( Collectors.toList() );
-						List<Point2D> f = d.stream().distinct().collect( Collectors.toList() );
-						polygons.add( toCcwPolygon( e, f ) );
-
-						// Start new paths
-						c = new ArrayList<>();
-						d = new ArrayList<>();
-					}
-
-					// Add starting intersection
-					c.add( intersectionPoint );
-					d.add( intersectionPoint );
+					// Report the section up to the intersecting segments
+					if( priorIntersection != null ) consumer.accept( a, aOffset, aIndex + 1, b, bOffset, bIndex + 1, start, intersectionPoint );
+					start = intersectionPoint;
 				}
 
 				// Store state
@@ -406,8 +550,55 @@ public class CfdGeometry {
 				bOffset = bIndex + 1;
 			}
 		}
+	}
+
+	/**
+	 * Find the first candidate pair for a segment in path a with a segment in
+	 * path b at or after an index.
+	 */
+	private static int findCandidate( long[] pairs, int aIndex, int bIndex ) {
+		int index = Arrays.binarySearch( pairs, (long)aIndex << 32 | bIndex );
+		return index < 0 ? -index - 1 : index;
+	}
+
+	/**
+	 * Calculate the Green's theorem area term of an open path from the start
+	 * point, through the path points from the start index to the end index,
+	 * to the end point.
+	 */
+	private static double calcPathArea( Point2D start, List<Point2D> points, int from, int to, Point2D end ) {
+		double result = 0;
+		Point2D prior = start;
+		for( int index = from; index <= to; index++ ) {
+			Point2D point = index < to ? points.get( index ) : end;
+			result += 0.5 * (point.x + prior.x) * (point.y - prior.y);
+			prior = point;
+		}
+		return result;
+	}
+
+	/**
+	 * Find the first point after the start point that is not the start point.
+	 */
+	private static Point2D findNextPoint( Point2D start, List<Point2D> points, int from, int to, Point2D end ) {
+		for( int index = from; index < to; index++ ) {
+			Point2D point = points.get( index );
+			if( !point.equals( start ) ) return point;
+		}
+		return end;
+	}
+
+	/**
+	 * A section between two paths closed by two intersections. The section
+	 * runs from the start point through the points of path a from the a start
+	 * index to the a end index, exclusive, to the end point and back along the
+	 * points of path b the same way.
+	 */
+	@FunctionalInterface
+	private interface SectionConsumer {
+
+		void accept( List<Point2D> a, int aStart, int aEnd, List<Point2D> b, int bStart, int bEnd, Point2D start, Point2D end );
 
-		return polygons;
 	}
 
 	/**
@@ -33,6 +33,13 @@ public class Cubic2D extends Shape {
 
 	public final Point2D d;
 
+	private static final double SOLVE_TOLERANCE = 1e-15;
+
+	// Five point Gauss-Legendre quadrature nodes and weights on [-1, 1]
+	private static final double[] GAUSS_NODES = { -0.9061798459386640, -0.5384693101056831, 0.0, 0.5384693101056831, 0.9061798459386640 };
+
+	private static final double[] GAUSS_WEIGHTS = { 0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891 };
+
 	private int hash;
 
 	/**
@@ -119,6 +126,117 @@ public class Cubic2D extends Shape {
 		return new Point2D( x, y );
 	}
 
+	/**
+	 * Calculate the speed of the curve at the given value. The speed is the
+	 * magnitude of the derivative of the curve.
+	 *
+	 * @param t the value at which to compute the speed
+	 * @return the speed of the curve at that value
+	 */
+	public double getSpeed( double t ) {
+		double u = 1 - t;
+		double x = 3 * ((bx - ax) * u * u + 2 * (cx - bx) * u * t + (dx - cx) * t * t);
+		double y = 3 * ((by - ay) * u * u + 2 * (cy - by) * u * t + (dy - cy) * t * t);
+		return Math.sqrt( x * x + y * y );
+	}
+
+	/**
+	 * Calculate the signed curvature of the curve at the given value. The
+	 * curvature is positive where the curve turns counter-clockwise.
+	 *
+	 * @param t the value at which to compute the curvature
+	 * @return the curvature of the curve at that value or NaN if the derivative
+	 * is zero
+	 */
+	public double getCurvature( double t ) {
+		double u = 1 - t;
+		double x1 = 3 * ((bx - ax) * u * u + 2 * (cx - bx) * u * t + (dx - cx) * t * t);
+		double y1 = 3 * ((by - ay) * u * u + 2 * (cy - by) * u * t + (dy - cy) * t * t);
+		double x2 = 6 * ((cx - 2 * bx + ax) * u + (dx - 2 * cx + bx) * t);
+		double y2 = 6 * ((cy - 2 * by + ay) * u + (dy - 2 * cy + by) * t);
+		double speed = Math.sqrt( x1 * x1 + y1 * y1 );
+		if( speed == 0 ) return Double.NaN;
+		return (x1 * y2 - y1 * x2) / (speed * speed * speed);
+	}
+
+	/**
+	 * Calculate the length of the curve.
+	 *
+	 * @return the length of the curve
+	 */
+	public double getArcLength() {
+		return getArcLength( 0, 1 );
+	}
+
+	/**
+	 * Calculate the length of the curve between two values using five point
+	 * Gauss-Legendre quadrature. The result is very accurate for short spans
+	 * and usually accurate to several digits for a whole curve. Split sharply
+	 * curved spans for better accuracy.
+	 *
+	 * @param t0 the start value
+	 * @param t1 the end value
+	 * @return the length of the curve between the values
+	 */
+	public double getArcLength( double t0, double t1 ) {
+		double half = 0.5 * (t1 - t0);
+		double middle = 0.5 * (t1 + t0);
+		double sum = 0;
+		for( int index = 0; index < GAUSS_NODES.length; index++ ) {
+			sum += GAUSS_WEIGHTS[ index ] * getSpeed( middle + half * GAUSS_NODES[ index ] );
+		}
+		return half * sum;
+	}
+
+	/**
+	 * Find the curve value where the X coordinate of the curve is equal to the
+	 * given X coordinate. This uses Newton's method safeguarded by bisection, so
+	 * it always converges when the X coordinate is between the X coordinates of
+	 * the end points. If the curve is not monotonic in X the value returned is
+	 * one of the possible values.
+	 *
+	 * @param x the X coordinate to solve for
+	 * @return the value at which the curve has the X coordinate or NaN if the X
+	 * coordinate is not between the X coordinates of the end points
+	 */
+	public double solveX( double x ) {
+		double lo = 0;
+		double hi = 1;
+		double fLo = ax - x;
+		double fHi = dx - x;
+		if( fLo == 0 ) return 0;
+		if( fHi == 0 ) return 1;
+		if( !(fLo * fHi < 0) ) return Double.NaN;
+
+		// Orient the bracket so f(lo) is negative
+		if( fLo > 0 ) {
+			lo = 1;
+			hi = 0;
+		}
+
+		// Start with the linear estimate
+		double t = (x - ax) / (dx - ax);
+		for( int iteration = 0; iteration < 64; iteration++ ) {
+			double f = calcX( t ) - x;
+			if( Math.abs( f ) <= SOLVE_TOLERANCE ) break;
+			if( f < 0 ) {
+				lo = t;
+			} else {
+				hi = t;
+			}
+
+			// Take the Newton step unless it leaves the bracket
+			double u = 1 - t;
+			double dt = 3 * ((bx - ax) * u * u + 2 * (cx - bx) * u * t + (dx - cx) * t * t);
+			double next = t - f / dt;
+			if( !(next > Math.min( lo, hi ) && next < Math.max( lo, hi )) ) next = 0.5 * (lo + hi);
+			if( next == t ) break;
+			t = next;
+		}
+
+		return t;
+	}
+
 	/**
 	 * Calculate the square of the flatness of the curve with given coordinates.
 	 * The flatness is the maximum distance of a control point from the line
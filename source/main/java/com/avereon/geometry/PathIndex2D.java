@@ -0,0 +1,303 @@
+package com.avereon.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A spatial index over the points and segments of a segmented path, for
+ * running many nearest point and offset queries against the same path. The
+ * index has two parts:
+ * <ul>
+ *   <li>A KD-tree over the path points for nearest point queries</li>
+ *   <li>A bounding volume hierarchy over the path segments for path offset
+ *   queries</li>
+ * </ul>
+ * Both trees are balanced and stored in arrays. A query only visits the parts
+ * of the trees that can contain something closer than the best match so far,
+ * so the cost of a query grows with the logarithm of the path size instead of
+ * the path size.
+ * <p>
+ * The query results are the same as the linear scans in {@link CfdGeometry},
+ * including which of several equally distant points or segments is chosen.
+ * The index is immutable after it is built and can be queried from multiple
+ * threads.
+ */
+public class PathIndex2D {
+
+	// Bounds that are farther than the best match by less than this fraction are still visited
+	private static final double PRUNE_TOLERANCE = 1e-9;
+
+	private static final int LEAF_SIZE = 4;
+
+	private final List<Point2D> points;
+
+	// The KD-tree point indexes in tree order
+	private final int[] pointTree;
+
+	// The BVH segment indexes in tree order, segment i is from point i to point i + 1
+	private final int[] segmentTree;
+
+	// The BVH node bounds, four values per node
+	private final double[] nodeBounds;
+
+	// The BVH node children, or the negative segment tree range for leaves
+	private final int[] nodeStart;
+
+	private final int[] nodeEnd;
+
+	private int nodeCount;
+
+	/**
+	 * Create an index over a path.
+	 *
+	 * @param points The path points
+	 */
+	public PathIndex2D( List<Point2D> points ) {
+		this.points = new ArrayList<>( points );
+		int count = this.points.size();
+
+		double[] x = new double[ count ];
+		double[] y = new double[ count ];
+		for( int index = 0; index < count; index++ ) {
+			Point2D point = this.points.get( index );
+			x[ index ] = point.x;
+			y[ index ] = point.y;
+		}
+
+		// Point KD-tree
+		pointTree = new int[ count ];
+		for( int index = 0; index < count; index++ ) {
+			pointTree[ index ] = index;
+		}
+		buildPointTree( x, y, 0, count, 0 );
+
+		// Segment BVH, skipping segments between the same point object like the scans
+		List<Integer> segments = new ArrayList<>();
+		for( int index = 0; index + 1 < count; index++ ) {
+			if( this.points.get( index ) != this.points.get( index + 1 ) ) segments.add( index );
+		}
+		segmentTree = segments.stream().mapToInt( Integer::intValue ).toArray();
+		int maxNodes = Math.max( 1, 2 * segmentTree.length );
+		nodeBounds = new double[ 4 * maxNodes ];
+		nodeStart = new int[ maxNodes ];
+		nodeEnd = new int[ maxNodes ];
+		if( segmentTree.length > 0 ) buildSegmentTree( x, y, new double[ count ], 0, segmentTree.length );
+	}
+
+	public static PathIndex2D of( List<Point2D> points ) {
+		return new PathIndex2D( points );
+	}
+
+	public List<Point2D> getPoints() {
+		return points;
+	}
+
+	/**
+	 * Find the point in the path nearest to a point. This gives the same
+	 * result as {@link CfdGeometry#findNearestPoint}.
+	 *
+	 * @param anchor The point from which to find the nearest point
+	 * @return The nearest path point or null if the path is empty
+	 */
+	public Point2D findNearestPoint( Point2D anchor ) {
+		if( points.isEmpty() ) return null;
+		Best best = new Best();
+		findNearestPoint( anchor, 0, pointTree.length, 0, best );
+		return points.get( best.key );
+	}
+
+	/**
+	 * Find the distance to the path point nearest to a point. This gives the
+	 * same result as {@link CfdGeometry#findSmallestDistance}.
+	 *
+	 * @param anchor The point from which to find the distance
+	 * @return The distance to the nearest path point
+	 */
+	public double findSmallestDistance( Point2D anchor ) {
+		return anchor.distance( findNearestPoint( anchor ) );
+	}
+
+	/**
+	 * Find the shortest offset between a point and the path, checking both the
+	 * path points and the path segments. This gives the same result as
+	 * {@link CfdGeometry#findShortestPathOffset}.
+	 *
+	 * @param anchor The point from which to find the shortest offset
+	 * @return The shortest offset between the point and the path
+	 */
+	public double findShortestPathOffset( Point2D anchor ) {
+		// The candidate keys are the order the scan checks them in
+		Best best = new Best();
+		best.offer( anchor.distance( points.get( 0 ) ), 0 );
+		if( segmentTree.length > 0 ) findShortestPathOffset( anchor, 0, best );
+		return best.value;
+	}
+
+	private void findNearestPoint( Point2D anchor, int lo, int hi, int depth, Best best ) {
+		if( lo >= hi ) return;
+		int mid = (lo + hi) >>> 1;
+		int index = pointTree[ mid ];
+		Point2D point = points.get( index );
+		best.offer( anchor.distance( point ), index );
+
+		double delta = (depth & 1) == 0 ? anchor.x - point.x : anchor.y - point.y;
+		if( delta < 0 ) {
+			findNearestPoint( anchor, lo, mid, depth + 1, best );
+			if( !best.isBeyond( -delta ) ) findNearestPoint( anchor, mid + 1, hi, depth + 1, best );
+		} else {
+			findNearestPoint( anchor, mid + 1, hi, depth + 1, best );
+			if( !best.isBeyond( delta ) ) findNearestPoint( anchor, lo, mid, depth + 1, best );
+		}
+	}
+
+	private void findShortestPathOffset( Point2D anchor, int node, Best best ) {
+		if( nodeStart[ node ] < 0 ) {
+			for( int position = -nodeStart[ node ] - 1; position < -nodeEnd[ node ] - 1; position++ ) {
+				int segment = segmentTree[ position ];
+				Point2D prior = points.get( segment );
+				Point2D point = points.get( segment + 1 );
+				best.offer( anchor.distance( point ), 2 * segment + 1 );
+				best.offer( CfdGeometry.getPointLineBoundOffset( anchor, prior, point ), 2 * segment + 2 );
+			}
+			return;
+		}
+
+		// Visit the nearer child first
+		int a = nodeStart[ node ];
+		int b = nodeEnd[ node ];
+		double aDistance = getBoundsDistance( anchor, a );
+		double bDistance = getBoundsDistance( anchor, b );
+		if( bDistance < aDistance ) {
+			int c = a;
+			a = b;
+			b = c;
+			double d = aDistance;
+			aDistance = bDistance;
+			bDistance = d;
+		}
+		if( !best.isBeyond( aDistance ) ) findShortestPathOffset( anchor, a, best );
+		if( !best.isBeyond( bDistance ) ) findShortestPathOffset( anchor, b, best );
+	}
+
+	private double getBoundsDistance( Point2D anchor, int node ) {
+		int offset = 4 * node;
+		double dx = Math.max( 0, Math.max( nodeBounds[ offset ] - anchor.x, anchor.x - nodeBounds[ offset + 2 ] ) );
+		double dy = Math.max( 0, Math.max( nodeBounds[ offset + 1 ] - anchor.y, anchor.y - nodeBounds[ offset + 3 ] ) );
+		return Math.sqrt( dx * dx + dy * dy );
+	}
+
+	/**
+	 * Build the KD-tree by putting the median point of each range, alternating
+	 * between X and Y, in the middle of the range.
+	 */
+	private void buildPointTree( double[] x, double[] y, int lo, int hi, int depth ) {
+		if( hi - lo < 2 ) return;
+		int mid = (lo + hi) >>> 1;
+		select( pointTree, (depth & 1) == 0 ? x : y, lo, hi - 1, mid );
+		buildPointTree( x, y, lo, mid, depth + 1 );
+		buildPointTree( x, y, mid + 1, hi, depth + 1 );
+	}
+
+	/**
+	 * Build the BVH by splitting each range of segments at the median segment
+	 * center along the longest side of the range bounds. The centers array is
+	 * scratch space indexed by segment, only the segments in the range are
+	 * written for each node.
+	 */
+	private int buildSegmentTree( double[] x, double[] y, double[] centers, int lo, int hi ) {
+		int node = nodeCount++;
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for( int position = lo; position < hi; position++ ) {
+			int segment = segmentTree[ position ];
+			minX = Math.min( minX, Math.min( x[ segment ], x[ segment + 1 ] ) );
+			minY = Math.min( minY, Math.min( y[ segment ], y[ segment + 1 ] ) );
+			maxX = Math.max( maxX, Math.max( x[ segment ], x[ segment + 1 ] ) );
+			maxY = Math.max( maxY, Math.max( y[ segment ], y[ segment + 1 ] ) );
+		}
+		nodeBounds[ 4 * node ] = minX;
+		nodeBounds[ 4 * node + 1 ] = minY;
+		nodeBounds[ 4 * node + 2 ] = maxX;
+		nodeBounds[ 4 * node + 3 ] = maxY;
+
+		if( hi - lo <= LEAF_SIZE ) {
+			nodeStart[ node ] = -lo - 1;
+			nodeEnd[ node ] = -hi - 1;
+			return node;
+		}
+
+		// Segment centers, doubled since only the order matters
+		double[] coords = maxX - minX >= maxY - minY ? x : y;
+		for( int position = lo; position < hi; position++ ) {
+			int segment = segmentTree[ position ];
+			centers[ segment ] = coords[ segment ] + coords[ segment + 1 ];
+		}
+
+		int mid = (lo + hi) >>> 1;
+		select( segmentTree, centers, lo, hi - 1, mid );
+		nodeStart[ node ] = buildSegmentTree( x, y, centers, lo, mid );
+		nodeEnd[ node ] = buildSegmentTree( x, y, centers, mid, hi );
+		return node;
+	}
+
+	/**
+	 * Partially sort the indexes from lo to hi, inclusive, by value so the
+	 * index at k is in its sorted position, with smaller values before it and
+	 * larger values after it.
+	 */
+	private static void select( int[] indexes, double[] values, int lo, int hi, int k ) {
+		while( hi > lo ) {
+			double pivot = values[ indexes[ (lo + hi) >>> 1 ] ];
+			int i = lo;
+			int j = hi;
+			while( i <= j ) {
+				while( values[ indexes[ i ] ] < pivot ) i++;
+				while( values[ indexes[ j ] ] > pivot ) j--;
+				if( i <= j ) {
+					int swap = indexes[ i ];
+					indexes[ i++ ] = indexes[ j ];
+					indexes[ j-- ] = swap;
+				}
+			}
+			if( k <= j ) {
+				hi = j;
+			} else if( k >= i ) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The best match of a query. A candidate is better if its absolute value
+	 * is smaller, or equal with a smaller key. The key is the position of the
+	 * candidate in the linear scan, so ties are broken the same way as the
+	 * scan, which keeps the first of equal candidates.
+	 */
+	private static class Best {
+
+		private double value = Double.NaN;
+
+		private double distance = Double.POSITIVE_INFINITY;
+
+		private int key = Integer.MAX_VALUE;
+
+		void offer( double value, int key ) {
+			double distance = Math.abs( value );
+			if( distance < this.distance || (distance == this.distance && key < this.key) ) {
+				this.value = value;
+				this.distance = distance;
+				this.key = key;
+			}
+		}
+
+		boolean isBeyond( double bound ) {
+			return bound > distance * (1 + PRUNE_TOLERANCE);
+		}
+
+	}
+
+}
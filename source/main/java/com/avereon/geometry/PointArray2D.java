@@ -0,0 +1,115 @@
+package com.avereon.geometry;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable sequence of 2D points stored as packed coordinates in a single
+ * double array, that is, x0, y0, x1, y1 and so on. This uses much less memory
+ * than a list of {@link Point2D} objects and keeps the coordinates together
+ * in memory for loops over many points. A read-only list view is available
+ * for code that works with lists of points.
+ */
+public class PointArray2D {
+
+	public static final PointArray2D EMPTY = new PointArray2D( new double[ 0 ] );
+
+	private final double[] coords;
+
+	private List<Point2D> list;
+
+	/**
+	 * Create a point array from packed coordinates. The array is used directly
+	 * and must not be modified after the point array is created.
+	 *
+	 * @param coords The packed point coordinates
+	 */
+	public PointArray2D( double[] coords ) {
+		if( coords.length % 2 != 0 ) throw new IllegalArgumentException( "Coordinate count must be even" );
+		this.coords = coords;
+	}
+
+	public static PointArray2D of( List<Point2D> points ) {
+		double[] coords = new double[ 2 * points.size() ];
+		int index = 0;
+		for( Point2D point : points ) {
+			coords[ index++ ] = point.x;
+			coords[ index++ ] = point.y;
+		}
+		return new PointArray2D( coords );
+	}
+
+	public int size() {
+		return coords.length / 2;
+	}
+
+	public boolean isEmpty() {
+		return coords.length == 0;
+	}
+
+	public double getX( int index ) {
+		return coords[ 2 * index ];
+	}
+
+	public double getY( int index ) {
+		return coords[ 2 * index + 1 ];
+	}
+
+	public Point2D get( int index ) {
+		return new Point2D( coords[ 2 * index ], coords[ 2 * index + 1 ] );
+	}
+
+	/**
+	 * Get a copy of the packed point coordinates.
+	 *
+	 * @return A copy of the packed coordinates
+	 */
+	public double[] toArray() {
+		return coords.clone();
+	}
+
+	/**
+	 * Get a read-only list view of the points. The points in the list are
+	 * created when they are requested.
+	 *
+	 * @return A list view of the points
+	 */
+	public List<Point2D> asList() {
+		if( list == null ) list = new PointList();
+		return list;
+	}
+
+	@Override
+	public boolean equals( Object object ) {
+		if( object == this ) return true;
+		if( !(object instanceof PointArray2D that) ) return false;
+		return Arrays.equals( this.coords, that.coords );
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode( coords );
+	}
+
+	@Override
+	public String toString() {
+		return "PointArray2D[size=" + size() + "]";
+	}
+
+	private class PointList extends AbstractList<Point2D> implements RandomAccess {
+
+		@Override
+		public Point2D get( int index ) {
+			return PointArray2D.this.get( index );
+		}
+
+		@Override
+		public int size() {
+			return PointArray2D.this.size();
+		}
+
+	}
+
+}
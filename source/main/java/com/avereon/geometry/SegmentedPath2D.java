@@ -1,6 +1,7 @@
 package com.avereon.geometry;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,26 +25,36 @@ public class SegmentedPath2D {
 
 	public final double[] percent;
 
+	// The distance along the path to each point
+	private final double[] distances;
+
 	public SegmentedPath2D( List<Point2D> points ) {
 		this.points = Collections.unmodifiableList( points );
 		this.pointCount = points.size();
 
-		// Path length
-		length = CfdGeometry.calcPathLength( points );
-
 		// Analyze path curve
 		Point2D prior = null;
 		Point2D point;
 		List<Line2D> lines = new ArrayList<>();
-		percent = new double[ pointCount ];
+		distances = new double[ pointCount ];
 		for( int index = 0; index < pointCount; index++ ) {
-			percent[ index ] = CfdGeometry.calcPathLength( points.subList( 0, index + 1 ) ) / length;
 			point = points.get( index );
-			if( index > 0 ) lines.add( new Line2D( prior, point ));
+			if( index > 0 ) {
+				distances[ index ] = distances[ index - 1 ] + prior.distance( point );
+				lines.add( new Line2D( prior, point ) );
+			}
 			prior = point;
 		}
 		segments = Collections.unmodifiableList( lines );
 		this.segmentCount = segments.size();
+
+		// Path length
+		length = pointCount == 0 ? Double.NaN : distances[ pointCount - 1 ];
+
+		percent = new double[ pointCount ];
+		for( int index = 0; index < pointCount; index++ ) {
+			percent[ index ] = distances[ index ] / length;
+		}
 	}
 
 	public static SegmentedPath2D of() {
@@ -86,4 +97,82 @@ public class SegmentedPath2D {
 		return new Line2D( points.get( index ), points.get( index + 1 ) );
 	}
 
+	/**
+	 * Get the distance along the path from the first point to a point.
+	 *
+	 * @param index The point index
+	 * @return The distance along the path to the point
+	 */
+	public final double getDistance( int index ) {
+		return distances[ index ];
+	}
+
+	/**
+	 * Get the index of the segment that contains a distance along the path.
+	 * Distances outside the path are clamped to the first or last segment.
+	 *
+	 * @param distance The distance along the path
+	 * @return The segment index or -1 if the path has no segments
+	 */
+	public int getSegmentIndexAtDistance( double distance ) {
+		if( segmentCount == 0 ) return -1;
+		int index = Arrays.binarySearch( distances, distance );
+		if( index < 0 ) index = -index - 2;
+		return Math.max( 0, Math.min( index, segmentCount - 1 ) );
+	}
+
+	/**
+	 * Get the index of the segment that contains a percent of the path length.
+	 *
+	 * @param percent The percent of the path length, from zero to one
+	 * @return The segment index or -1 if the path has no segments
+	 * @see #getSegmentIndexAtDistance(double)
+	 */
+	public int getSegmentIndexAtPercent( double percent ) {
+		return getSegmentIndexAtDistance( percent * length );
+	}
+
+	/**
+	 * Get the segment that contains a percent of the path length.
+	 *
+	 * @param percent The percent of the path length, from zero to one
+	 * @return The segment or null if the path has no segments
+	 */
+	public Line2D getSegmentAtPercent( double percent ) {
+		int index = getSegmentIndexAtPercent( percent );
+		return index < 0 ? null : segments.get( index );
+	}
+
+	/**
+	 * Get the point at a distance along the path. Distances outside the path
+	 * are clamped to the path ends.
+	 *
+	 * @param distance The distance along the path
+	 * @return The point on the path or null if the path is empty
+	 */
+	public Point2D getPointAtDistance( double distance ) {
+		if( pointCount == 0 ) return null;
+		if( segmentCount == 0 || distance <= 0 ) return points.get( 0 );
+		if( distance >= length ) return points.get( pointCount - 1 );
+
+		int index = getSegmentIndexAtDistance( distance );
+		Point2D a = points.get( index );
+		Point2D b = points.get( index + 1 );
+		double span = distances[ index + 1 ] - distances[ index ];
+		if( span == 0 ) return a;
+
+		double t = (distance - distances[ index ]) / span;
+		return new Point2D( a.x + t * (b.x - a.x), a.y + t * (b.y - a.y) );
+	}
+
+	/**
+	 * Get the point at a percent of the path length.
+	 *
+	 * @param percent The percent of the path length, from zero to one
+	 * @return The point on the path or null if the path is empty
+	 */
+	public Point2D getPointAtPercent( double percent ) {
+		return getPointAtDistance( percent * length );
+	}
+
 }
@@ -14,6 +14,7 @@ module com.avereon.aveon {
 	requires com.avereon.zevra;
 	requires javafx.controls;
 	requires javafx.graphics;
+	requires java.net.http;
 
 	opens com.avereon.aveon.bundles;
 
@@ -0,0 +1,110 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AirfoilArchiveReaderTest {
+
+	@TempDir
+	Path folder;
+
+	@Test
+	void testRead() throws Exception {
+		Path archive = folder.resolve( "airfoils.zip" );
+		try( OutputStream output = Files.newOutputStream( archive ) ) {
+			output.write( createArchive() );
+		}
+
+		List<Airfoil> airfoils = new ArrayList<>();
+		AirfoilArchiveReader.Result result = AirfoilArchiveReader.read( archive, airfoils::add );
+
+		assertThat( result.getLoadedCount() ).isEqualTo( 3 );
+		assertThat( result.getFailedCount() ).isEqualTo( 1 );
+		assertThat( result.getFailedEntries() ).containsExactly( "coord/readme.txt" );
+		assertThat( airfoils.stream().map( Airfoil::getId ).sorted().toList() ).containsExactly( "clarky", "e376", "ht05" );
+	}
+
+	@Test
+	void testReadWithSmallQueue() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			List<String> names = new ArrayList<>();
+			AirfoilArchiveReader.Result result = AirfoilArchiveReader.read( new ByteArrayInputStream( createArchive() ), airfoil -> names.add( airfoil.getName() ), executor, 1 );
+
+			assertThat( result.getLoadedCount() ).isEqualTo( 3 );
+			assertThat( names.size() ).isEqualTo( 3 );
+			assertThat( names ).contains( "CLARK Y AIRFOIL", "EPPLER 376 AIRFOIL", "HT05" );
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testReadInterrupted() throws Exception {
+		// Hold the entries without parsing them and interrupt the read on the second entry
+		List<Runnable> queued = new ArrayList<>();
+		Executor executor = task -> {
+			queued.add( task );
+			if( queued.size() == 2 ) Thread.currentThread().interrupt();
+		};
+
+		List<Airfoil> airfoils = new ArrayList<>();
+		try {
+			assertThatThrownBy( () -> AirfoilArchiveReader.read( new ByteArrayInputStream( createArchive() ), airfoils::add, executor, 4 ) ).isInstanceOf( InterruptedIOException.class );
+		} finally {
+			Thread.interrupted();
+		}
+
+		// The entries submitted before the interrupt do not reach the consumer
+		assertThat( queued.size() ).isEqualTo( 2 );
+		queued.forEach( Runnable::run );
+		assertThat( airfoils ).isEmpty();
+	}
+
+	@Test
+	void testGetId() {
+		assertThat( AirfoilArchiveReader.getId( "coord/clarky.dat" ) ).isEqualTo( "clarky" );
+		assertThat( AirfoilArchiveReader.getId( "e376.led.txt" ) ).isEqualTo( "e376.led" );
+		assertThat( AirfoilArchiveReader.getId( "naca0012" ) ).isEqualTo( "naca0012" );
+	}
+
+	private byte[] createArchive() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try( ZipOutputStream zip = new ZipOutputStream( bytes ) ) {
+			zip.putNextEntry( new ZipEntry( "coord/" ) );
+			zip.closeEntry();
+			for( String name : new String[]{ "clarky", "e376", "ht05" } ) {
+				zip.putNextEntry( new ZipEntry( "coord/" + name + ".dat" ) );
+				try( InputStream input = getClass().getResource( name + ".led.txt" ).openStream() ) {
+					zip.write( input.readAllBytes() );
+				}
+				zip.closeEntry();
+			}
+			zip.putNextEntry( new ZipEntry( "coord/readme.txt" ) );
+			zip.write( "This archive contains airfoil coordinates\n".getBytes( StandardCharsets.UTF_8 ) );
+			zip.closeEntry();
+		}
+		return bytes.toByteArray();
+	}
+
+}
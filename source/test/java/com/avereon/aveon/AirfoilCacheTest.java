@@ -0,0 +1,135 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AirfoilCacheTest {
+
+	@TempDir
+	Path folder;
+
+	@Test
+	void testLoadStoresAirfoil() throws Exception {
+		Path source = copy( "clarky.led.txt", "clarky.txt" );
+		AirfoilCache cache = new AirfoilCache( folder.resolve( "cache" ) );
+
+		assertThat( cache.contains( source.toUri() ) ).isFalse();
+		Airfoil airfoil = cache.load( source.toUri() );
+		assertThat( airfoil.getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+		assertThat( cache.contains( source.toUri() ) ).isTrue();
+		assertThat( cache.getSize() ).isGreaterThan( 0 );
+
+		Airfoil cached = cache.load( source.toUri() );
+		assertThat( cached.getContentHash() ).isEqualTo( airfoil.getContentHash() );
+		assertThat( cached.getThickness() ).isEqualTo( airfoil.getThickness() );
+	}
+
+	@Test
+	void testLoadIsOfflineFirst() throws Exception {
+		Path source = copy( "clarky.led.txt", "airfoil.txt" );
+		AirfoilCache cache = new AirfoilCache( folder.resolve( "cache" ) );
+		cache.load( source.toUri() );
+
+		// The cached copy is used while it is fresh, even if the source changed
+		copy( "e376.led.txt", "airfoil.txt" );
+		assertThat( cache.load( source.toUri() ).getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+
+		// The cached copy is used when the source is not available
+		Files.delete( source );
+		assertThat( cache.load( source.toUri() ).getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+	}
+
+	@Test
+	void testLoadRevalidatesStaleContent() throws Exception {
+		Path source = copy( "clarky.led.txt", "airfoil.txt" );
+		AirfoilCache cache = new AirfoilCache( folder.resolve( "cache" ), AirfoilCache.DEFAULT_MAX_SIZE, Duration.ZERO );
+		assertThat( cache.load( source.toUri() ).getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+
+		copy( "e376.led.txt", "airfoil.txt" );
+		assertThat( cache.load( source.toUri() ).getName() ).isEqualTo( "EPPLER 376 AIRFOIL" );
+
+		// Stale content is still used when the source is not available
+		Files.delete( source );
+		assertThat( cache.load( source.toUri() ).getName() ).isEqualTo( "EPPLER 376 AIRFOIL" );
+	}
+
+	@Test
+	void testEvictLeastRecentlyUsed() throws Exception {
+		Path clarky = copy( "clarky.led.txt", "clarky.txt" );
+		Path e376 = copy( "e376.led.txt", "e376.txt" );
+		Path ht05 = copy( "ht05.led.txt", "ht05.txt" );
+
+		AirfoilCache probe = new AirfoilCache( folder.resolve( "cache" ) );
+		Path clarkyObject = loadObject( probe, clarky );
+		Path e376Object = loadObject( probe, e376 );
+		Path ht05Object = loadObject( probe, ht05 );
+		long size = probe.getSize();
+
+		// Set the use times explicitly instead of depending on the clock
+		Files.setLastModifiedTime( clarkyObject, FileTime.fromMillis( 1000 ) );
+		Files.setLastModifiedTime( e376Object, FileTime.fromMillis( 2000 ) );
+		Files.setLastModifiedTime( ht05Object, FileTime.fromMillis( 3000 ) );
+
+		// Loading the oldest airfoil marks it as the most recently used
+		AirfoilCache cache = new AirfoilCache( folder.resolve( "cache" ), size - 1, AirfoilCache.DEFAULT_MAX_AGE );
+		cache.load( clarky.toUri() );
+		cache.evict();
+
+		assertThat( cache.getSize() ).isLessThanOrEqualTo( size - 1 );
+		assertThat( cache.contains( clarky.toUri() ) ).isTrue();
+		assertThat( cache.contains( e376.toUri() ) ).isFalse();
+		assertThat( cache.contains( ht05.toUri() ) ).isTrue();
+
+		// The entry of the evicted airfoil is removed too
+		assertThat( listFiles( folder.resolve( "cache" ).resolve( "entries" ) ) ).hasSize( 2 );
+	}
+
+	@Test
+	void testLoadMissing() {
+		AirfoilCache cache = new AirfoilCache( folder.resolve( "cache" ) );
+		assertThatThrownBy( () -> cache.load( folder.resolve( "missing.txt" ).toUri() ) ).isInstanceOf( IOException.class );
+	}
+
+	/**
+	 * Load an airfoil into the cache and return the object file that was added.
+	 */
+	private Path loadObject( AirfoilCache cache, Path source ) throws IOException {
+		Path objects = folder.resolve( "cache" ).resolve( "objects" );
+		Set<Path> existing = listFiles( objects );
+		cache.load( source.toUri() );
+		Set<Path> added = listFiles( objects );
+		added.removeAll( existing );
+		assertThat( added ).hasSize( 1 );
+		return added.iterator().next();
+	}
+
+	private static Set<Path> listFiles( Path folder ) throws IOException {
+		if( !Files.exists( folder ) ) return new HashSet<>();
+		try( Stream<Path> stream = Files.list( folder ) ) {
+			return stream.collect( Collectors.toCollection( HashSet::new ) );
+		}
+	}
+
+	private Path copy( String resource, String name ) throws IOException {
+		Path file = folder.resolve( name );
+		try( InputStream input = getClass().getResource( resource ).openStream() ) {
+			Files.write( file, input.readAllBytes() );
+		}
+		return file;
+	}
+
+}
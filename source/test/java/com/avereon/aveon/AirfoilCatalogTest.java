@@ -0,0 +1,75 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AirfoilCatalogTest {
+
+	@TempDir
+	Path folder;
+
+	@Test
+	void testBuildAndOpen() throws Exception {
+		Path airfoils = Files.createDirectories( folder.resolve( "airfoils" ) );
+		copy( "clarky.led.txt", airfoils );
+		copy( "e376.led.txt", airfoils );
+		copy( "ht05.led.txt", airfoils );
+		Files.writeString( airfoils.resolve( "broken.txt" ), "NOT AN AIRFOIL\n" );
+
+		Path file = folder.resolve( "airfoils.catalog" );
+		AirfoilCatalog.build( airfoils, file );
+		AirfoilCatalog catalog = AirfoilCatalog.open( file );
+
+		// The broken file should be skipped
+		assertThat( catalog.size() ).isEqualTo( 3 );
+		assertThat( catalog.getId( 0 ) ).isEqualTo( "clarky.led" );
+		assertThat( catalog.getName( 0 ) ).isEqualTo( "CLARK Y AIRFOIL" );
+		assertThat( catalog.getName( 1 ) ).isEqualTo( "EPPLER 376 AIRFOIL" );
+		assertThat( catalog.getName( 2 ) ).isEqualTo( "HT05" );
+		assertThat( catalog.indexOf( "ht05.led" ) ).isEqualTo( 2 );
+		assertThat( catalog.indexOf( "missing" ) ).isEqualTo( -1 );
+
+		Airfoil expected = load( "clarky.led.txt" );
+		assertThat( catalog.getThickness( 0 ) ).isEqualTo( expected.getThickness() );
+		assertThat( catalog.getThicknessStation( 0 ) ).isEqualTo( expected.getThicknessStation() );
+		assertThat( catalog.getCamber( 0 ) ).isEqualTo( expected.getMaxCamber().getY() );
+		assertThat( catalog.getCamberStation( 0 ) ).isEqualTo( expected.getMaxCamber().getX() );
+		assertThat( catalog.getMinY( 0 ) ).isEqualTo( expected.getMinY() );
+		assertThat( catalog.getMaxY( 0 ) ).isEqualTo( expected.getMaxY() );
+
+		Airfoil airfoil = catalog.getAirfoil( 0 );
+		assertThat( airfoil.getId() ).isEqualTo( "clarky.led" );
+		assertThat( airfoil.getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+		assertThat( airfoil.getUpperDefinitionPoints() ).isEqualTo( expected.getUpperDefinitionPoints() );
+		assertThat( airfoil.getLowerDefinitionPoints() ).isEqualTo( expected.getLowerDefinitionPoints() );
+	}
+
+	@Test
+	void testOpenWithInvalidFile() throws Exception {
+		Path file = folder.resolve( "invalid.catalog" );
+		Files.writeString( file, "This is not a catalog file" );
+
+		assertThatThrownBy( () -> AirfoilCatalog.open( file ) ).isInstanceOf( IOException.class ).hasMessage( "Not an airfoil catalog" );
+	}
+
+	private void copy( String name, Path folder ) throws IOException {
+		try( InputStream input = getClass().getResourceAsStream( name ) ) {
+			Files.copy( input, folder.resolve( name ) );
+		}
+	}
+
+	private Airfoil load( String name ) throws IOException {
+		try( InputStream input = getClass().getResourceAsStream( name ) ) {
+			return AirfoilStationPointCodec.loadStationPoints( input );
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AirfoilCodecTest {
+
+	@Test
+	void testSaveAndLoadWithAnalysis() throws Exception {
+		Airfoil airfoil = loadStationPoints( "clarky.led.txt" );
+		airfoil.setId( "clarky" );
+		airfoil.getUpperPoints( Panelization.ANALYSIS );
+
+		byte[] bytes = save( airfoil, true );
+		Airfoil loaded = AirfoilCodec.loadAirfoil( new ByteArrayInputStream( bytes ) );
+
+		assertThat( loaded.getId() ).isEqualTo( "clarky" );
+		assertThat( loaded.getName() ).isEqualTo( airfoil.getName() );
+		assertThat( loaded.getContentHash() ).isEqualTo( airfoil.getContentHash() );
+		assertThat( loaded.getUpperDefinitionPoints() ).isEqualTo( airfoil.getUpperDefinitionPoints() );
+		assertThat( loaded.getLowerDefinitionPoints() ).isEqualTo( airfoil.getLowerDefinitionPoints() );
+		assertThat( loaded.getUpperSurfaceCurves() ).isEqualTo( airfoil.getUpperSurfaceCurves() );
+		assertThat( loaded.getSurfacePanelizations() ).contains( Panelization.PANELS, Panelization.ANALYSIS );
+		assertThat( loaded.getThickness() ).isEqualTo( airfoil.getThickness() );
+		assertThat( loaded.getMaxCamber() ).isEqualTo( airfoil.getMaxCamber() );
+		assertThat( loaded.getUpperPointArray( Panelization.PANELS ) ).isEqualTo( airfoil.getUpperPointArray( Panelization.PANELS ) );
+		assertThat( loaded.getLowerPointArray( Panelization.ANALYSIS ) ).isEqualTo( airfoil.getLowerPointArray( Panelization.ANALYSIS ) );
+	}
+
+	@Test
+	void testSaveAndLoadWithoutAnalysis() throws Exception {
+		Airfoil airfoil = loadStationPoints( "e376.led.txt" );
+
+		byte[] bytes = save( airfoil, false );
+		Airfoil loaded = AirfoilCodec.loadAirfoil( new ByteArrayInputStream( bytes ) );
+
+		assertThat( loaded.getId() ).isNull();
+		assertThat( loaded.getSurfacePanelizations() ).isEmpty();
+		assertThat( loaded.getUpperDefinitionPoints() ).isEqualTo( airfoil.getUpperDefinitionPoints() );
+		assertThat( loaded.getThickness() ).isEqualTo( airfoil.getThickness() );
+		assertThat( loaded.getUpperPoints() ).isEqualTo( airfoil.getUpperPoints() );
+	}
+
+	@Test
+	void testSaveIsSmallerThanText() throws Exception {
+		byte[] text;
+		try( InputStream input = getClass().getResource( "clarky.led.txt" ).openStream() ) {
+			text = input.readAllBytes();
+		}
+		byte[] bytes = save( loadStationPoints( "clarky.led.txt" ), false );
+		assertThat( bytes.length ).isLessThan( text.length );
+	}
+
+	@Test
+	void testLoadInvalid() {
+		assertThatThrownBy( () -> AirfoilCodec.loadAirfoil( new ByteArrayInputStream( new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8 } ) ) ).isInstanceOf( IOException.class );
+	}
+
+	private static byte[] save( Airfoil airfoil, boolean includeAnalysis ) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		AirfoilCodec.saveAirfoil( airfoil, output, includeAnalysis );
+		return output.toByteArray();
+	}
+
+	private Airfoil loadStationPoints( String name ) throws IOException {
+		try( InputStream input = getClass().getResource( name ).openStream() ) {
+			return AirfoilStationPointCodec.loadStationPoints( input );
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AirfoilHeaderTest {
+
+	@TempDir
+	Path folder;
+
+	@Test
+	void testProbeLednicer() throws Exception {
+		Path file = copy( "clarky.led.txt", folder );
+
+		AirfoilHeader header = AirfoilHeader.probe( file );
+		assertThat( header.getId() ).isEqualTo( "clarky.led" );
+		assertThat( header.getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+		assertThat( header.getFormat() ).isEqualTo( AirfoilHeader.Format.LEDNICER );
+		assertThat( header.getUpperCount() ).isEqualTo( 61 );
+		assertThat( header.getLowerCount() ).isEqualTo( 61 );
+		assertThat( header.getPointCount() ).isEqualTo( 122 );
+		assertThat( header.getFile() ).isEqualTo( file );
+	}
+
+	@Test
+	void testProbeSelig() throws Exception {
+		Path file = folder.resolve( "test.dat" );
+		Files.writeString( file, "TEST AIRFOIL\n1.0 0.0\n0.5 0.05\n0.0 0.0\n\n0.5 -0.05\n1.0 0.0\n" );
+
+		AirfoilHeader header = AirfoilHeader.probe( file );
+		assertThat( header.getId() ).isEqualTo( "test" );
+		assertThat( header.getName() ).isEqualTo( "TEST AIRFOIL" );
+		assertThat( header.getFormat() ).isEqualTo( AirfoilHeader.Format.SELIG );
+		assertThat( header.getUpperCount() ).isEqualTo( -1 );
+		assertThat( header.getPointCount() ).isEqualTo( 5 );
+	}
+
+	@Test
+	void testProbeInvalid() throws Exception {
+		Path empty = folder.resolve( "empty.dat" );
+		Files.writeString( empty, "\n\n" );
+		assertThatThrownBy( () -> AirfoilHeader.probe( empty ) ).isInstanceOf( IOException.class );
+
+		Path invalid = folder.resolve( "invalid.dat" );
+		Files.writeString( invalid, "NAME\nnot a point\n" );
+		assertThatThrownBy( () -> AirfoilHeader.probe( invalid ) ).isInstanceOf( IOException.class );
+
+		Path single = folder.resolve( "single.dat" );
+		Files.writeString( single, "NAME\nnotapoint\n" );
+		assertThatThrownBy( () -> AirfoilHeader.probe( single ) ).isInstanceOf( IOException.class );
+	}
+
+	@Test
+	void testListAndSort() throws Exception {
+		copy( "clarky.led.txt", folder );
+		copy( "e376.led.txt", folder );
+		copy( "ht05.led.txt", folder );
+		Files.writeString( folder.resolve( "broken.txt" ), "\n" );
+
+		List<AirfoilHeader> headers = new ArrayList<>( AirfoilHeader.list( folder ) );
+		assertThat( headers.size() ).isEqualTo( 3 );
+
+		headers.sort( AirfoilHeader.BY_NAME );
+		assertThat( headers.stream().map( AirfoilHeader::getName ).toList() ).containsExactly( "CLARK Y AIRFOIL", "EPPLER 376 AIRFOIL", "HT05" );
+
+		headers.sort( AirfoilHeader.BY_POINT_COUNT );
+		assertThat( headers.stream().map( AirfoilHeader::getPointCount ).toList() ).containsExactly( 62, 122, 180 );
+	}
+
+	@Test
+	void testListCatalog() throws Exception {
+		Path airfoils = Files.createDirectories( folder.resolve( "airfoils" ) );
+		copy( "clarky.led.txt", airfoils );
+		copy( "e376.led.txt", airfoils );
+
+		AirfoilCatalog catalog = AirfoilCatalog.build( airfoils, folder.resolve( "airfoils.catalog" ) );
+		List<AirfoilHeader> headers = AirfoilHeader.list( catalog );
+
+		assertThat( headers.size() ).isEqualTo( 2 );
+		AirfoilHeader header = headers.get( 1 );
+		assertThat( header.getId() ).isEqualTo( "e376.led" );
+		assertThat( header.getName() ).isEqualTo( "EPPLER 376 AIRFOIL" );
+		assertThat( header.getFormat() ).isEqualTo( AirfoilHeader.Format.CATALOG );
+		assertThat( header.getPointCount() ).isEqualTo( catalog.getUpperCount( 1 ) + catalog.getLowerCount( 1 ) );
+		assertThat( header.getFile() ).isNull();
+	}
+
+	private Path copy( String name, Path folder ) throws IOException {
+		Path file = folder.resolve( name );
+		try( InputStream input = getClass().getResourceAsStream( name ) ) {
+			Files.copy( input, file );
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AirfoilIndexTest {
+
+	@Test
+	void testNearestMatchesBruteForce() {
+		Random random = new Random( 2718 );
+		List<double[]> descriptors = new ArrayList<>();
+		for( int index = 0; index < 2000; index++ ) {
+			double[] descriptor = new double[ AirfoilDescriptor.SIZE ];
+			for( int value = 0; value < descriptor.length; value++ ) {
+				descriptor[ value ] = random.nextGaussian();
+			}
+			descriptors.add( descriptor );
+		}
+		AirfoilIndex index = new AirfoilIndex( descriptors );
+		assertThat( index.size() ).isEqualTo( 2000 );
+
+		for( int query = 0; query < 20; query++ ) {
+			double[] target = descriptors.get( random.nextInt( descriptors.size() ) ).clone();
+			target[ 0 ] += 0.1;
+
+			List<AirfoilIndex.Match> matches = index.nearest( target, 5 );
+			List<Integer> expected = IntStream.range( 0, descriptors.size() ).boxed().sorted( Comparator.comparingDouble( i -> AirfoilDescriptor.distance( target, descriptors.get( i ) ) ) ).limit( 5 ).toList();
+
+			assertThat( matches.stream().map( AirfoilIndex.Match::getIndex ).toList() ).isEqualTo( expected );
+		}
+	}
+
+	@Test
+	void testNearestWithFewDescriptors() {
+		AirfoilIndex index = new AirfoilIndex( List.of( new double[]{ 0, 0 }, new double[]{ 1, 0 } ) );
+
+		List<AirfoilIndex.Match> matches = index.nearest( new double[]{ 0.9, 0 }, 5 );
+		assertThat( matches.size() ).isEqualTo( 2 );
+		assertThat( matches.get( 0 ).getIndex() ).isEqualTo( 1 );
+		assertThat( matches.get( 1 ).getIndex() ).isEqualTo( 0 );
+		assertThat( new AirfoilIndex( List.of() ).nearest( new double[]{ 0, 0 }, 3 ) ).isEmpty();
+	}
+
+	@Test
+	void testNearestAirfoil() throws Exception {
+		List<Airfoil> airfoils = List.of( load( "clarky.led.txt" ), load( "e376.led.txt" ), load( "ht05.led.txt" ) );
+		AirfoilIndex index = new AirfoilIndex( airfoils.stream().map( AirfoilDescriptor::create ).toList() );
+
+		for( int airfoil = 0; airfoil < airfoils.size(); airfoil++ ) {
+			AirfoilIndex.Match match = index.nearest( airfoils.get( airfoil ), 1 ).get( 0 );
+			assertThat( match.getIndex() ).isEqualTo( airfoil );
+			assertThat( match.getDistance() ).isEqualTo( 0.0 );
+		}
+	}
+
+	@Test
+	void testDescriptor() throws Exception {
+		Airfoil airfoil = load( "clarky.led.txt" );
+		double[] descriptor = AirfoilDescriptor.create( airfoil );
+
+		assertThat( descriptor.length ).isEqualTo( AirfoilDescriptor.SIZE );
+		for( int index = 0; index < AirfoilDescriptor.STATION_COUNT; index++ ) {
+			assertThat( descriptor[ index ] ).isGreaterThan( 0.0 );
+			assertThat( descriptor[ index ] ).isLessThanOrEqualTo( airfoil.getThickness() + 1e-3 );
+		}
+	}
+
+	private Airfoil load( String name ) throws IOException {
+		try( InputStream input = getClass().getResourceAsStream( name ) ) {
+			return AirfoilStationPointCodec.loadStationPoints( input );
+		}
+	}
+
+}
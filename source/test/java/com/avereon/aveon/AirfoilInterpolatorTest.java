@@ -0,0 +1,82 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Point2D;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AirfoilInterpolatorTest {
+
+	@Test
+	void testBlendWithSingleParentWeight() {
+		Airfoil thin = createAirfoil( 0.04, -0.04 );
+		AirfoilInterpolator interpolator = new AirfoilInterpolator( List.of( thin, createAirfoil( 0.1, -0.1 ) ) );
+
+		double[] upper = new double[ interpolator.getStationCount() ];
+		double[] lower = new double[ interpolator.getStationCount() ];
+		interpolator.blend( new double[]{ 1, 0 }, upper, lower );
+
+		List<Point2D> expected = thin.getUpperPoints( AirfoilInterpolator.DEFAULT_STATIONS );
+		for( int station = 0; station < upper.length; station++ ) {
+			assertThat( upper[ station ] ).isEqualTo( expected.get( station ).getY() );
+		}
+	}
+
+	@Test
+	void testBlendAirfoil() {
+		AirfoilInterpolator interpolator = new AirfoilInterpolator( List.of( createAirfoil( 0.04, -0.04 ), createAirfoil( 0.1, 0.0 ) ) );
+
+		Airfoil blend = interpolator.blend( 0.5, 0.5 );
+		assertThat( blend.getMaxY() ).isCloseTo( 0.07, Offset.offset( 1e-4 ) );
+		assertThat( blend.getMinY() ).isCloseTo( -0.02, Offset.offset( 1e-4 ) );
+		assertThat( blend.getThickness() ).isCloseTo( 0.09, Offset.offset( 1e-4 ) );
+	}
+
+	@Test
+	void testSweep() {
+		AirfoilInterpolator interpolator = new AirfoilInterpolator( List.of( createAirfoil( 0.04, -0.04 ), createAirfoil( 0.1, -0.1 ) ) );
+		int last = interpolator.getStationCount() - 1;
+
+		List<double[]> weights = new ArrayList<>();
+		for( int step = 0; step <= 10; step++ ) {
+			weights.add( new double[]{ 1 - 0.1 * step, 0.1 * step } );
+		}
+
+		List<Double> thickness = new ArrayList<>();
+		interpolator.sweep( weights, contour -> {
+			assertThat( contour.length ).isEqualTo( interpolator.getContourSize() );
+
+			// The contour starts and ends at the trailing edge and passes the leading edge
+			assertThat( contour[ 0 ] ).isCloseTo( 1.0, Offset.offset( 1e-12 ) );
+			assertThat( contour[ 2 * last ] ).isEqualTo( 0.0 );
+			assertThat( contour[ contour.length - 2 ] ).isCloseTo( 1.0, Offset.offset( 1e-12 ) );
+
+			// Thickness at mid chord
+			int middle = last / 2;
+			thickness.add( contour[ 2 * (last + middle) + 1 ] - contour[ 2 * (last - middle) + 1 ] );
+		} );
+
+		assertThat( thickness.size() ).isEqualTo( 11 );
+		assertThat( thickness.get( 0 ) ).isCloseTo( 0.08, Offset.offset( 1e-4 ) );
+		assertThat( thickness.get( 5 ) ).isCloseTo( 0.14, Offset.offset( 1e-4 ) );
+		assertThat( thickness.get( 10 ) ).isCloseTo( 0.2, Offset.offset( 1e-4 ) );
+	}
+
+	private static Airfoil createAirfoil( double upper, double lower ) {
+		return new Airfoil().setDefinitionPoints( surface( upper ), surface( lower ) );
+	}
+
+	private static List<Point2D> surface( double height ) {
+		List<Point2D> points = new ArrayList<>();
+		for( int index = 0; index <= 40; index++ ) {
+			double x = index / 40.0;
+			points.add( new Point2D( x, height * Math.sin( Math.PI * x ) ) );
+		}
+		return points;
+	}
+
+}
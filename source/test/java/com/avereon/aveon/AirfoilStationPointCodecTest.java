@@ -3,7 +3,9 @@ package com.avereon.aveon;
 import com.avereon.geometry.Point2D;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,7 +42,7 @@ public class AirfoilStationPointCodecTest {
 	}
 
 	@Test
-	void testLoadLednicer() {
+	void testLoadLednicer() throws Exception {
 		List<String> lines = new ArrayList<>();
 
 		lines.add( "TEST AIRFOIL" );
@@ -52,7 +54,7 @@ public class AirfoilStationPointCodecTest {
 		lines.add( "  0.160000 -0.030255" );
 		lines.add( "  1.000000 -0.000599" );
 
-		Airfoil foil = AirfoilStationPointCodec.loadLednicer( lines );
+		Airfoil foil = loadLines( lines );
 
 		assertThat( foil.getName() ).isEqualTo( "TEST AIRFOIL" );
 		int index = 0;
@@ -68,7 +70,7 @@ public class AirfoilStationPointCodecTest {
 	}
 
 	@Test
-	void testLoadSelig() {
+	void testLoadSelig() throws Exception {
 		List<String> lines = new ArrayList<>();
 
 		lines.add( "TEST AIRFOIL" );
@@ -78,7 +80,7 @@ public class AirfoilStationPointCodecTest {
 		lines.add( "  0.160000 -0.030255" );
 		lines.add( "  1.000000 -0.000599" );
 
-		Airfoil foil = AirfoilStationPointCodec.loadSelig( lines );
+		Airfoil foil = loadLines( lines );
 
 		assertThat( foil.getName() ).isEqualTo( "TEST AIRFOIL" );
 		int index = 0;
@@ -93,6 +95,41 @@ public class AirfoilStationPointCodecTest {
 		assertThat( index ).isEqualTo( 3 );
 	}
 
+	@Test
+	void testLoadConcatenatedStream() throws Exception {
+		String text = """
+			LEDNICER AIRFOIL
+			       3.       3.
+
+			  0.000000  0.000000
+			  0.360000  0.091627
+			  1.000000  0.000599
+
+			  0.000000  0.000000
+			  0.160000 -0.030255
+			  1.000000 -0.000599
+			SELIG AIRFOIL
+			  1.000000  0.000599
+			  0.360000  0.091627
+			  0.000000  0.000000
+			  0.160000 -0.030255
+			  1.000000 -0.000599
+			""";
+
+		List<Airfoil> airfoils = new ArrayList<>();
+		int count = AirfoilStationPointCodec.loadStationPoints( new ByteArrayInputStream( text.getBytes( StandardCharsets.UTF_8 ) ), airfoils::add );
+
+		assertThat( count ).isEqualTo( 2 );
+		assertThat( airfoils.get( 0 ).getName() ).isEqualTo( "LEDNICER AIRFOIL" );
+		assertThat( airfoils.get( 1 ).getName() ).isEqualTo( "SELIG AIRFOIL" );
+		assertThat( airfoils.get( 1 ).getUpperDefinitionPoints() ).isEqualTo( airfoils.get( 0 ).getUpperDefinitionPoints() );
+		assertThat( airfoils.get( 1 ).getLowerDefinitionPoints() ).isEqualTo( airfoils.get( 0 ).getLowerDefinitionPoints() );
+
+		// Loading a single airfoil stops at the first airfoil
+		Airfoil first = AirfoilStationPointCodec.loadStationPoints( new ByteArrayInputStream( text.getBytes( StandardCharsets.UTF_8 ) ) );
+		assertThat( first.getName() ).isEqualTo( "LEDNICER AIRFOIL" );
+	}
+
 	@Test
 	void testParsePoint() {
 		assertThat( AirfoilStationPointCodec.loadStationPoint( "0 0" ) ).isEqualTo( Point2D.ZERO );
@@ -104,6 +141,10 @@ public class AirfoilStationPointCodecTest {
 //		assertThat( AirfoilStationPointCodec.loadStationPoint( "  0.0001  0.01  " ) ).isEqualTo( Point2D.ZERO );
 //	}
 
+	private static Airfoil loadLines( List<String> lines ) throws Exception {
+		return AirfoilStationPointCodec.loadStationPoints( new ByteArrayInputStream( String.join( "\n", lines ).getBytes( StandardCharsets.UTF_8 ) ) );
+	}
+
 	private Airfoil loadAirfoil( String name ) throws Exception {
 		try( InputStream input = getClass().getResource( name ).openStream() ) {
 			return AirfoilStationPointCodec.loadStationPoints( input );
@@ -0,0 +1,80 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AirfoilStationPointParserTest {
+
+	@Test
+	void testParseMatchesCodec() throws Exception {
+		for( String name : new String[]{ "clarky.led.txt", "e376.led.txt", "ht05.led.txt" } ) {
+			Airfoil expected;
+			try( InputStream input = getClass().getResource( name ).openStream() ) {
+				expected = AirfoilStationPointCodec.loadStationPoints( input );
+			}
+			Airfoil airfoil;
+			try( InputStream input = getClass().getResource( name ).openStream() ) {
+				airfoil = AirfoilStationPointParser.parse( ByteBuffer.wrap( input.readAllBytes() ) );
+			}
+
+			assertThat( airfoil.getName() ).isEqualTo( expected.getName() );
+			assertThat( airfoil.getUpperDefinitionPoints() ).isEqualTo( expected.getUpperDefinitionPoints() );
+			assertThat( airfoil.getLowerDefinitionPoints() ).isEqualTo( expected.getLowerDefinitionPoints() );
+		}
+	}
+
+	@Test
+	void testParseLednicer() throws Exception {
+		String text = "TEST AIRFOIL\n       3.       3.\n\n  0.000000  0.000000\n  0.360000  0.091627\n  1.000000  0.000599\n\n  0.000000  0.000000\n  0.160000 -0.030255\n  1.000000 -0.000599\n";
+		AirfoilStationPointParser.StationPoints points = parse( text );
+
+		assertThat( points.getName() ).isEqualTo( "TEST AIRFOIL" );
+		assertThat( points.getUpper().toArray() ).containsExactly( 0, 0, 0.36, 0.091627, 1, 0.000599 );
+		assertThat( points.getLower().toArray() ).containsExactly( 0, 0, 0.16, -0.030255, 1, -0.000599 );
+	}
+
+	@Test
+	void testParseSelig() throws Exception {
+		String text = "TEST AIRFOIL\r\n  1.000000  0.000599\r\n  0.360000  0.091627\r\n  0.000000  0.000000\r\n  0.160000 -0.030255\r\n  1.000000 -0.000599\r\n";
+		AirfoilStationPointParser.StationPoints points = parse( text );
+
+		assertThat( points.getName() ).isEqualTo( "TEST AIRFOIL" );
+		assertThat( points.getUpper().toArray() ).containsExactly( 0, 0, 0.36, 0.091627, 1, 0.000599 );
+		assertThat( points.getLower().toArray() ).containsExactly( 0, 0, 0.16, -0.030255, 1, -0.000599 );
+	}
+
+	@Test
+	void testParseNumbers() throws Exception {
+		String[] values = { "0.25", "-0.000599", "+1.5", "1e-3", "-2.5E+2", ".5", "7.", "0.12345678901234567890", "1e-30", "123456789012345678" };
+		StringBuilder text = new StringBuilder( "NUMBERS\n1 0\n0 0\n" );
+		for( String value : values ) {
+			text.append( "1 " ).append( value ).append( "\n" );
+		}
+
+		AirfoilStationPointParser.StationPoints points = parse( text.toString() );
+		assertThat( points.getUpper().size() ).isEqualTo( 2 );
+		assertThat( points.getLower().size() ).isEqualTo( values.length + 1 );
+		for( int index = 0; index < values.length; index++ ) {
+			assertThat( points.getLower().getY( index + 1 ) ).isEqualTo( Double.parseDouble( values[ index ] ) );
+		}
+	}
+
+	@Test
+	void testParseInvalid() {
+		assertThatThrownBy( () -> parse( "" ) ).isInstanceOf( IOException.class );
+		assertThatThrownBy( () -> parse( "NOT AN AIRFOIL\n" ) ).isInstanceOf( IOException.class );
+		assertThatThrownBy( () -> parse( "BAD\n0 x\n" ) ).isInstanceOf( IOException.class );
+	}
+
+	private static AirfoilStationPointParser.StationPoints parse( String text ) throws IOException {
+		return AirfoilStationPointParser.parseStationPoints( ByteBuffer.wrap( text.getBytes( StandardCharsets.UTF_8 ) ) );
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.ArcLengthTable;
+import com.avereon.geometry.Point2D;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AirfoilTest {
+
+	@Test
+	void testDerivedGeometry() {
+		Airfoil airfoil = new Airfoil().setDefinitionPoints( surface( 0.06 ), surface( -0.06 ) );
+
+		assertThat( airfoil.getMaxY() ).isCloseTo( 0.06, Offset.offset( 1e-12 ) );
+		assertThat( airfoil.getMinY() ).isCloseTo( -0.06, Offset.offset( 1e-12 ) );
+		assertThat( airfoil.getThickness() ).isCloseTo( 0.12, Offset.offset( 1e-4 ) );
+		assertThat( airfoil.getThicknessStation() ).isCloseTo( 0.5, Offset.offset( 1e-2 ) );
+		assertThat( airfoil.getMaxCamber().getY() ).isCloseTo( 0.0, Offset.offset( 1e-9 ) );
+		assertThat( airfoil.getUpperPoints().size() ).isEqualTo( 61 );
+		assertThat( airfoil.getLowerPoints().size() ).isEqualTo( 61 );
+	}
+
+	@Test
+	void testDerivedGeometryIsMemoized() {
+		Airfoil airfoil = new Airfoil().setDefinitionPoints( surface( 0.06 ), surface( -0.06 ) );
+
+		assertThat( airfoil.getCamber() ).isSameAs( airfoil.getCamber() );
+		assertThat( airfoil.getUpperPoints() ).isSameAs( airfoil.getUpperPoints() );
+	}
+
+	@Test
+	void testCamberMatchesAnalysisPoints() {
+		Airfoil airfoil = new Airfoil().setDefinitionPoints( surface( 0.1 ), surface( -0.02 ) );
+
+		List<Point2D> camber = airfoil.getCamber();
+		List<Point2D> upper = airfoil.getUpperPoints( Panelization.ANALYSIS );
+		List<Point2D> lower = airfoil.getLowerPoints( Panelization.ANALYSIS );
+		assertThat( camber.size() ).isEqualTo( upper.size() );
+
+		Point2D maxCamber = Point2D.ZERO;
+		double maxThickness = 0;
+		for( int index = 0; index < camber.size(); index++ ) {
+			Point2D expected = upper.get( index ).midpoint( lower.get( index ) );
+			assertThat( camber.get( index ).distance( expected ) ).isLessThan( 1e-15 );
+			if( expected.getY() > maxCamber.getY() ) maxCamber = expected;
+			maxThickness = Math.max( maxThickness, upper.get( index ).distance( lower.get( index ) ) );
+		}
+		assertThat( airfoil.getMaxCamber().distance( maxCamber ) ).isLessThan( 1e-15 );
+		assertThat( airfoil.getThickness() ).isEqualTo( maxThickness );
+	}
+
+	@Test
+	void testPanelization() {
+		Airfoil airfoil = new Airfoil().setDefinitionPoints( surface( 0.06 ), surface( -0.06 ) );
+
+		for( int count : new int[]{ 50, 100, 200, 400 } ) {
+			Panelization panelization = new Panelization( count, Panelization.Spacing.COSINE );
+			List<Point2D> upper = airfoil.getUpperPoints( panelization );
+			assertThat( upper.size() ).isEqualTo( count + 1 );
+			assertThat( upper.get( count / 2 ).getX() ).isCloseTo( 0.5, Offset.offset( 1e-12 ) );
+			assertThat( upper.get( count / 2 ).getY() ).isCloseTo( 0.06, Offset.offset( 1e-4 ) );
+
+			// Equal panelizations share the cached points
+			assertThat( airfoil.getUpperPoints( new Panelization( count, Panelization.Spacing.COSINE ) ) ).isSameAs( upper );
+		}
+	}
+
+	@Test
+	void testSurfaceTables() {
+		Airfoil airfoil = new Airfoil().setDefinitionPoints( surface( 0.06 ), surface( -0.06 ) );
+
+		ArcLengthTable upper = airfoil.getUpperSurfaceTable();
+		assertThat( upper ).isSameAs( airfoil.getUpperSurfaceTable() );
+		assertThat( upper.getLength() ).isGreaterThan( 1.0 );
+		assertThat( upper.getPointAtDistance( 0 ).distance( 0, 0 ) ).isLessThan( 1e-12 );
+		assertThat( upper.getPointAtDistance( upper.getLength() ).distance( 1, 0 ) ).isLessThan( 1e-12 );
+		assertThat( airfoil.getLowerSurfaceTable().getLength() ).isCloseTo( upper.getLength(), Offset.offset( 1e-12 ) );
+	}
+
+	@Test
+	void testDerivedGeometryResetWithDefinitionPoints() {
+		Airfoil airfoil = new Airfoil().setDefinitionPoints( surface( 0.06 ), surface( -0.06 ) );
+		List<Point2D> camber = airfoil.getCamber();
+		assertThat( airfoil.getThickness() ).isCloseTo( 0.12, Offset.offset( 1e-4 ) );
+
+		airfoil.setDefinitionPoints( surface( 0.1 ), surface( -0.02 ) );
+		assertThat( airfoil.getCamber() ).isNotSameAs( camber );
+		assertThat( airfoil.getUpperPoints( Panelization.PANELS ).get( 30 ).getY() ).isCloseTo( 0.1, Offset.offset( 1e-4 ) );
+		assertThat( airfoil.getMaxY() ).isCloseTo( 0.1, Offset.offset( 1e-12 ) );
+		assertThat( airfoil.getThickness() ).isCloseTo( 0.12, Offset.offset( 1e-4 ) );
+		assertThat( airfoil.getMaxCamber().getY() ).isCloseTo( 0.04, Offset.offset( 1e-4 ) );
+	}
+
+	@Test
+	void testWithoutDefinitionPoints() {
+		Airfoil airfoil = new Airfoil();
+
+		assertThat( airfoil.isAnalyzed() ).isFalse();
+		assertThat( airfoil.getThickness() ).isEqualTo( 0.0 );
+		assertThat( airfoil.getCamber() ).isEmpty();
+		assertThat( airfoil.getUpperPoints() ).isEmpty();
+	}
+
+	/**
+	 * Create a sine shaped surface from the leading edge to the trailing edge.
+	 */
+	private static List<Point2D> surface( double height ) {
+		List<Point2D> points = new ArrayList<>();
+		for( int index = 0; index <= 40; index++ ) {
+			double x = index / 40.0;
+			points.add( new Point2D( x, height * Math.sin( Math.PI * x ) ) );
+		}
+		return points;
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.avereon.aveon;
+
+import com.avereon.geometry.Point2D;
+import com.avereon.geometry.SegmentedPath2D;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.avereon.aveon.FlowFieldFixtures.fill;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContourExtractorTest {
+
+	@Test
+	void testExtractLinearField() {
+		FlowField field = new FlowField( 0, 0, 1, 1, 11, 101 );
+		fill( field, FlowField.Channel.STREAM, ( x, y ) -> x );
+
+		List<SegmentedPath2D> contours = new ContourExtractor( field, FlowField.Channel.STREAM ).extract( 0.35 );
+
+		// The strips should be stitched into a single polyline
+		assertThat( contours.size() ).isEqualTo( 1 );
+		SegmentedPath2D contour = contours.get( 0 );
+		assertThat( contour.getPointCount() ).isEqualTo( 101 );
+		for( Point2D point : contour.getPoints() ) {
+			assertThat( point.getX() ).isCloseTo( 0.35, Offset.offset( 1e-12 ) );
+		}
+	}
+
+	@Test
+	void testExtractClosedContour() {
+		FlowField field = new FlowField( -1, -1, 1, 1, 81, 81 );
+		fill( field, FlowField.Channel.PRESSURE, ( x, y ) -> x * x + y * y );
+
+		List<SegmentedPath2D> contours = new ContourExtractor( field, FlowField.Channel.PRESSURE ).extract( 0.25 );
+
+		assertThat( contours.size() ).isEqualTo( 1 );
+		SegmentedPath2D contour = contours.get( 0 );
+		assertThat( contour.getPoint( 0 ) ).isEqualTo( contour.getPoint( contour.getPointCount() - 1 ) );
+		for( Point2D point : contour.getPoints() ) {
+			assertThat( point.magnitude() ).isCloseTo( 0.5, Offset.offset( 1e-3 ) );
+		}
+	}
+
+	@Test
+	void testExtractMultipleLevels() {
+		FlowField field = new FlowField( -1, -1, 1, 1, 41, 41 );
+		fill( field, FlowField.Channel.PRESSURE, ( x, y ) -> x * x + y * y );
+
+		List<List<double[]>> contours = new ContourExtractor( field, FlowField.Channel.PRESSURE ).extractPacked( 0.1, 0.5, 4.0 );
+
+		assertThat( contours.size() ).isEqualTo( 3 );
+		assertThat( contours.get( 0 ).size() ).isEqualTo( 1 );
+		assertThat( contours.get( 1 ).size() ).isEqualTo( 1 );
+		assertThat( contours.get( 2 ).size() ).isEqualTo( 0 );
+	}
+
+	@Test
+	void testExtractSkipsMissingValues() {
+		FlowField field = new FlowField( -1, -1, 1, 1, 41, 41 );
+		fill( field, FlowField.Channel.POTENTIAL, ( x, y ) -> Math.abs( x ) < 0.2 ? Double.NaN : y );
+
+		List<SegmentedPath2D> contours = new ContourExtractor( field, FlowField.Channel.POTENTIAL ).extract( 0.01 );
+
+		assertThat( contours.size() ).isEqualTo( 2 );
+	}
+
+}
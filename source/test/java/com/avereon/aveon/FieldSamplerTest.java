@@ -0,0 +1,112 @@
+package com.avereon.aveon;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleBinaryOperator;
+
+import static com.avereon.aveon.FlowFieldFixtures.fill;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldSamplerTest {
+
+	private static final Offset<Double> TOLERANCE = Offset.offset( 1e-12 );
+
+	@Test
+	void testBilinearWithBilinearField() {
+		FlowField field = createField( ( x, y ) -> 1 + 2 * x - y + 0.5 * x * y );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.PRESSURE );
+
+		assertThat( sampler.sample( 0.0, 0.0 ) ).isCloseTo( 1.0, TOLERANCE );
+		assertThat( sampler.sample( 0.33, -0.71 ) ).isCloseTo( 1 + 2 * 0.33 + 0.71 - 0.5 * 0.33 * 0.71, TOLERANCE );
+		assertThat( sampler.sample( 1.0, 1.0 ) ).isCloseTo( 2.5, TOLERANCE );
+	}
+
+	@Test
+	void testBicubicWithQuadraticField() {
+		FlowField field = createField( ( x, y ) -> x * x + x * y - 2 * y * y );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.PRESSURE, FieldSampler.Interpolation.BICUBIC );
+
+		// Catmull-Rom interpolation reproduces quadratics away from the grid edges
+		assertThat( sampler.sample( 0.33, -0.41 ) ).isCloseTo( 0.33 * 0.33 - 0.33 * 0.41 - 2 * 0.41 * 0.41, TOLERANCE );
+		assertThat( sampler.sample( -0.52, 0.27 ) ).isCloseTo( 0.52 * 0.52 - 0.52 * 0.27 - 2 * 0.27 * 0.27, TOLERANCE );
+	}
+
+	@Test
+	void testSampleOutsideGrid() {
+		FlowField field = createField( ( x, y ) -> x );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.PRESSURE );
+
+		assertThat( sampler.sample( -1.1, 0 ) ).isNaN();
+		assertThat( sampler.sample( 0, 1.1 ) ).isNaN();
+		assertThat( sampler.sample( Double.NaN, 0 ) ).isNaN();
+	}
+
+	@Test
+	void testBatchSample() {
+		FlowField field = createField( ( x, y ) -> Math.sin( x ) * Math.cos( y ) );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.PRESSURE, FieldSampler.Interpolation.BICUBIC );
+		FieldSampler reference = new FieldSampler( field, FlowField.Channel.PRESSURE, FieldSampler.Interpolation.BICUBIC );
+
+		int count = 100;
+		double[] x = new double[ count ];
+		double[] y = new double[ count ];
+		double[] points = new double[ 2 * count ];
+		for( int index = 0; index < count; index++ ) {
+			x[ index ] = points[ 2 * index ] = -0.9 + 0.018 * index;
+			y[ index ] = points[ 2 * index + 1 ] = 0.5 * Math.sin( 0.1 * index );
+		}
+
+		double[] values = new double[ count ];
+		double[] packed = new double[ count ];
+		sampler.sample( x, y, values );
+		sampler.sample( points, packed );
+
+		for( int index = 0; index < count; index++ ) {
+			double expected = reference.sample( x[ index ], y[ index ] );
+			assertThat( values[ index ] ).isEqualTo( expected );
+			assertThat( packed[ index ] ).isEqualTo( expected );
+			assertThat( values[ index ] ).isCloseTo( Math.sin( x[ index ] ) * Math.cos( y[ index ] ), Offset.offset( 1e-4 ) );
+		}
+	}
+
+	@Test
+	void testInvalidate() {
+		FlowField field = createField( ( x, y ) -> x );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.PRESSURE );
+		assertThat( sampler.sample( 0.01, 0.01 ) ).isCloseTo( 0.01, TOLERANCE );
+
+		field.set( FlowField.Channel.PRESSURE, 20, 20, 1.0 );
+		sampler.invalidate();
+		assertThat( sampler.sample( 0.0, 0.0 ) ).isCloseTo( 1.0, TOLERANCE );
+	}
+
+	@Test
+	void testInvalidateReadsGrid() {
+		FlowField field = createField( ( x, y ) -> x );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.PRESSURE );
+		assertThat( sampler.sample( 1.5, 0.0 ) ).isNaN();
+
+		field.setGrid( 0, 0, 2, 2, 3, 3 );
+		field.setValues( FlowField.Channel.PRESSURE, new double[]{ 0, 1, 2, 0, 1, 2, 0, 1, 2 } );
+		sampler.invalidate();
+		assertThat( sampler.sample( 1.5, 0.5 ) ).isCloseTo( 1.5, TOLERANCE );
+	}
+
+	@Test
+	void testSampleMissingChannel() {
+		FlowField field = createField( ( x, y ) -> x );
+		FieldSampler sampler = new FieldSampler( field, FlowField.Channel.STREAM, FieldSampler.Interpolation.BICUBIC );
+
+		// Sampling a missing channel does not create it
+		assertThat( sampler.sample( 0.0, 0.0 ) ).isNaN();
+		assertThat( field.hasChannel( FlowField.Channel.STREAM ) ).isFalse();
+	}
+
+	private static FlowField createField( DoubleBinaryOperator function ) {
+		FlowField field = new FlowField( -1, -1, 1, 1, 41, 41 );
+		fill( field, FlowField.Channel.PRESSURE, function );
+		return field;
+	}
+
+}
@@ -0,0 +1,210 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FlowCodecTest {
+
+	private static final int MAGIC = 0x41564657;
+
+	private static final int META = 0x4d455441;
+
+	private static final int CHANNEL = 0x4348414e;
+
+	@Test
+	void testSaveAndLoad() throws Exception {
+		Flow2D flow = new Flow2D();
+		try( InputStream input = getClass().getResource( "clarky.led.txt" ).openStream() ) {
+			flow.setAirfoil( AirfoilStationPointCodec.loadStationPoints( input ) );
+		}
+		flow.setSingularityStrengths( new double[]{ 0.1, -0.2, 0.3 } );
+		flow.setSurfacePressures( new double[]{ 1.0, 0.5, -0.5 } );
+
+		FlowField field = flow.getFlowField();
+		field.setGrid( -1, -1, 2, 1, 31, 21 );
+		double[] pressure = new double[ 31 * 21 ];
+		double[] stream = new double[ 31 * 21 ];
+		for( int index = 0; index < pressure.length; index++ ) {
+			pressure[ index ] = Math.sin( 0.01 * index );
+			stream[ index ] = index;
+		}
+		field.setValues( FlowField.Channel.PRESSURE, pressure );
+		field.setValues( FlowField.Channel.STREAM, stream );
+
+		Flow2D loaded = load( save( flow ) );
+
+		assertThat( loaded.getAirfoil().getName() ).isEqualTo( "CLARK Y AIRFOIL" );
+		assertThat( loaded.getAirfoil().getContentHash() ).isEqualTo( flow.getAirfoil().getContentHash() );
+		assertThat( loaded.getSingularityStrengths() ).isEqualTo( flow.getSingularityStrengths() );
+		assertThat( loaded.getSurfacePressures() ).isEqualTo( flow.getSurfacePressures() );
+		assertThat( loaded.getSurfaceMoments() ).isNull();
+
+		FlowField loadedField = loaded.getFlowField();
+		assertThat( loadedField.getXMin() ).isEqualTo( -1.0 );
+		assertThat( loadedField.getYMax() ).isEqualTo( 1.0 );
+		assertThat( loadedField.getXCount() ).isEqualTo( 31 );
+		assertThat( loadedField.getYCount() ).isEqualTo( 21 );
+		assertThat( loadedField.hasChannel( FlowField.Channel.PRESSURE ) ).isTrue();
+		assertThat( loadedField.hasChannel( FlowField.Channel.POTENTIAL ) ).isFalse();
+		assertThat( loadedField.getValues( FlowField.Channel.PRESSURE ) ).isEqualTo( pressure );
+		assertThat( loadedField.get( FlowField.Channel.STREAM, 4, 2 ) ).isEqualTo( 66.0 );
+	}
+
+	@Test
+	void testSaveAndLoadWithFloatPrecision() throws Exception {
+		Flow2D flow = new Flow2D();
+		FlowField field = flow.getFlowField();
+		field.setGrid( 0, 0, 1, 1, 3, 3 );
+		field.setPrecision( FlowField.Precision.FLOAT );
+		field.set( FlowField.Channel.VELOCITY_X, 1, 1, 0.1 );
+
+		Flow2D loaded = load( save( flow ) );
+
+		assertThat( loaded.getAirfoil() ).isNull();
+		assertThat( loaded.getFlowField().getPrecision() ).isEqualTo( FlowField.Precision.FLOAT );
+		assertThat( loaded.getFlowField().get( FlowField.Channel.VELOCITY_X, 1, 1 ) ).isEqualTo( (double)0.1f );
+	}
+
+	@Test
+	void testSaveAndLoadWithoutGrid() throws Exception {
+		Flow2D loaded = load( save( new Flow2D() ) );
+		assertThat( loaded.getFlowField().getXCount() ).isEqualTo( 0 );
+		assertThat( loaded.getSingularityStrengths() ).isNull();
+	}
+
+	@Test
+	void testSaveAndLoadWithQuantizedPrecision() throws Exception {
+		Flow2D flow = new Flow2D();
+		FlowField field = flow.getFlowField();
+		field.setGrid( 0, 0, 1, 1, 51, 51 );
+		field.setPrecision( FlowField.Precision.QUANTIZED );
+		double[] values = new double[ 51 * 51 ];
+		for( int index = 0; index < values.length; index++ ) {
+			values[ index ] = Math.cos( 0.003 * index );
+		}
+		values[ 7 ] = Double.NaN;
+		field.setValues( FlowField.Channel.PRESSURE, values );
+
+		byte[] bytes = save( flow );
+		Flow2D loaded = load( bytes );
+
+		// The quantized values are stored, not doubles
+		assertThat( bytes.length ).isLessThan( 4 * values.length );
+		assertThat( loaded.getFlowField().getPrecision() ).isEqualTo( FlowField.Precision.QUANTIZED );
+		assertThat( loaded.getFlowField().getValues( FlowField.Channel.PRESSURE ) ).isEqualTo( field.getValues( FlowField.Channel.PRESSURE ) );
+	}
+
+	@Test
+	void testLoadSkipsUnknownChannels() throws Exception {
+		double[] pressure = new double[ 9 ];
+		for( int index = 0; index < pressure.length; index++ ) {
+			pressure[ index ] = index;
+		}
+		ByteBuffer values = ByteBuffer.allocate( 8 * pressure.length );
+		values.asDoubleBuffer().put( pressure );
+
+		// The channels come before the metadata
+		byte[] bytes = file( new Object[]{ CHANNEL, "TEMPERATURE", new byte[ 72 ] }, new Object[]{ CHANNEL, "PRESSURE", values.array() }, new Object[]{ META, "", meta( "DOUBLE" ) } );
+		Flow2D loaded = load( bytes );
+
+		FlowField field = loaded.getFlowField();
+		assertThat( field.getXCount() ).isEqualTo( 3 );
+		assertThat( field.hasChannel( FlowField.Channel.PRESSURE ) ).isTrue();
+		assertThat( field.getValues( FlowField.Channel.PRESSURE ) ).isEqualTo( pressure );
+	}
+
+	@Test
+	void testLoadUnknownPrecision() throws Exception {
+		byte[] bytes = file( new Object[]{ META, "", meta( "HALF" ) } );
+		assertThatThrownBy( () -> load( bytes ) ).isInstanceOf( IOException.class );
+	}
+
+	@Test
+	void testLoadInvalid() {
+		assertThatThrownBy( () -> load( new byte[]{ 1, 2, 3, 4 } ) ).isInstanceOf( IOException.class );
+	}
+
+	@Test
+	void testLoadCorruptChunkTable() throws Exception {
+		byte[] negative = table( 0, -1, -1 );
+		byte[] truncated = table( 0, Integer.MAX_VALUE, Integer.MAX_VALUE );
+		byte[] inflated = table( 1, Integer.MAX_VALUE, 16 );
+		assertThatThrownBy( () -> load( negative ) ).isInstanceOf( IOException.class );
+		assertThatThrownBy( () -> load( truncated ) ).isInstanceOf( IOException.class );
+		assertThatThrownBy( () -> load( inflated ) ).isInstanceOf( IOException.class );
+	}
+
+	/**
+	 * Write a flow file with a chunk table entry and no chunk data.
+	 */
+	private static byte[] table( int compression, int size, int length ) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream( bytes );
+		data.writeInt( MAGIC );
+		data.writeInt( 2 );
+		data.writeInt( 1 );
+		data.writeInt( CHANNEL );
+		data.writeUTF( "PRESSURE" );
+		data.writeByte( compression );
+		data.writeInt( size );
+		data.writeInt( length );
+		return bytes.toByteArray();
+	}
+
+	private static byte[] meta( String precision ) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream( bytes );
+		data.writeUTF( "" );
+		data.writeUTF( precision );
+		data.writeInt( 3 );
+		data.writeInt( 3 );
+		data.writeDouble( 0 );
+		data.writeDouble( 0 );
+		data.writeDouble( 1 );
+		data.writeDouble( 1 );
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write a flow file with uncompressed chunks. Each chunk is the type, name
+	 * and data.
+	 */
+	private static byte[] file( Object[]... chunks ) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream( bytes );
+		data.writeInt( MAGIC );
+		data.writeInt( 2 );
+		data.writeInt( chunks.length );
+		for( Object[] chunk : chunks ) {
+			data.writeInt( (Integer)chunk[ 0 ] );
+			data.writeUTF( (String)chunk[ 1 ] );
+			data.writeByte( 0 );
+			data.writeInt( ((byte[])chunk[ 2 ]).length );
+			data.writeInt( ((byte[])chunk[ 2 ]).length );
+		}
+		for( Object[] chunk : chunks ) {
+			data.write( (byte[])chunk[ 2 ] );
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] save( Flow2D flow ) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		FlowCodec.saveFlow( flow, output );
+		return output.toByteArray();
+	}
+
+	private static Flow2D load( byte[] bytes ) throws IOException {
+		return FlowCodec.loadFlow( new ByteArrayInputStream( bytes ) );
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.avereon.aveon;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Shared helpers for tests that need flow fields with known values.
+ */
+final class FlowFieldFixtures {
+
+	private FlowFieldFixtures() {}
+
+	/**
+	 * Set every node of a channel to a function of the node coordinates.
+	 *
+	 * @param field The flow field
+	 * @param channel The channel to fill
+	 * @param function The value at the X and Y coordinates of a node
+	 */
+	static void fill( FlowField field, FlowField.Channel channel, DoubleBinaryOperator function ) {
+		for( int j = 0; j < field.getYCount(); j++ ) {
+			for( int i = 0; i < field.getXCount(); i++ ) {
+				field.set( channel, i, j, function.applyAsDouble( field.getX( i ), field.getY( j ) ) );
+			}
+		}
+	}
+
+}
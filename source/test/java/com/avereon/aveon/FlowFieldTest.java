@@ -0,0 +1,103 @@
+package com.avereon.aveon;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlowFieldTest {
+
+	@Test
+	void testGetCoordinates() {
+		FlowField field = new FlowField( -1, -2, 1, 2, 5, 9 );
+		assertThat( field.getX( 0 ) ).isEqualTo( -1.0 );
+		assertThat( field.getX( 2 ) ).isEqualTo( 0.0 );
+		assertThat( field.getX( 4 ) ).isEqualTo( 1.0 );
+		assertThat( field.getY( 0 ) ).isEqualTo( -2.0 );
+		assertThat( field.getY( 4 ) ).isEqualTo( 0.0 );
+		assertThat( field.getY( 8 ) ).isEqualTo( 2.0 );
+	}
+
+	@Test
+	void testSetAndGet() {
+		FlowField field = new FlowField( 0, 0, 1, 1, 3, 3 );
+		field.set( FlowField.Channel.PRESSURE, 1, 2, 0.5 );
+
+		assertThat( field.hasChannel( FlowField.Channel.PRESSURE ) ).isTrue();
+		assertThat( field.hasChannel( FlowField.Channel.STREAM ) ).isFalse();
+		assertThat( field.get( FlowField.Channel.PRESSURE, 1, 2 ) ).isEqualTo( 0.5 );
+		assertThat( field.getValues( FlowField.Channel.PRESSURE )[ 7 ] ).isEqualTo( 0.5 );
+
+		// Reading a missing channel does not create it
+		double[] row = new double[ 3 ];
+		field.getRow( FlowField.Channel.STREAM, 1, row );
+		assertThat( field.get( FlowField.Channel.STREAM, 1, 2 ) ).isNaN();
+		assertThat( row[ 2 ] ).isNaN();
+		assertThat( field.getValues( FlowField.Channel.STREAM )[ 4 ] ).isNaN();
+		assertThat( field.hasChannel( FlowField.Channel.STREAM ) ).isFalse();
+	}
+
+	@Test
+	void testFloatPrecision() {
+		FlowField field = createField();
+		field.setPrecision( FlowField.Precision.FLOAT );
+
+		assertThat( field.getPrecision() ).isEqualTo( FlowField.Precision.FLOAT );
+		assertThat( field.get( FlowField.Channel.STREAM, 3, 4 ) ).isEqualTo( (double)(float)value( 3, 4 ) );
+		assertThat( field.get( FlowField.Channel.STREAM, 0, 0 ) ).isNaN();
+	}
+
+	@Test
+	void testQuantizedPrecision() {
+		FlowField field = createField();
+		field.setPrecision( FlowField.Precision.QUANTIZED );
+
+		// The range of the values is about 10, so the step size is about 1.5e-4
+		Offset<Double> error = Offset.offset( 1e-4 );
+		for( int j = 0; j < field.getYCount(); j++ ) {
+			for( int i = 0; i < field.getXCount(); i++ ) {
+				if( i == 0 && j == 0 ) continue;
+				assertThat( field.get( FlowField.Channel.STREAM, i, j ) ).isCloseTo( value( i, j ), error );
+			}
+		}
+		assertThat( field.get( FlowField.Channel.STREAM, 0, 0 ) ).isNaN();
+	}
+
+	@Test
+	void testQuantizedSetOutsideRange() {
+		FlowField field = createField();
+		field.setPrecision( FlowField.Precision.QUANTIZED );
+		field.set( FlowField.Channel.STREAM, 2, 2, 100.0 );
+
+		assertThat( field.get( FlowField.Channel.STREAM, 2, 2 ) ).isCloseTo( 100.0, Offset.offset( 1e-2 ) );
+		assertThat( field.get( FlowField.Channel.STREAM, 3, 4 ) ).isCloseTo( value( 3, 4 ), Offset.offset( 1e-2 ) );
+	}
+
+	@Test
+	void testGetRow() {
+		FlowField field = createField();
+		double[] row = new double[ field.getXCount() ];
+		field.getRow( FlowField.Channel.STREAM, 3, row );
+		for( int i = 0; i < row.length; i++ ) {
+			assertThat( row[ i ] ).isEqualTo( value( i, 3 ) );
+		}
+	}
+
+	private FlowField createField() {
+		FlowField field = new FlowField( 0, 0, 1, 1, 11, 11 );
+		double[] values = new double[ 121 ];
+		for( int j = 0; j < 11; j++ ) {
+			for( int i = 0; i < 11; i++ ) {
+				values[ j * 11 + i ] = value( i, j );
+			}
+		}
+		values[ 0 ] = Double.NaN;
+		field.setValues( FlowField.Channel.STREAM, values );
+		return field;
+	}
+
+	private static double value( int i, int j ) {
+		return Math.sin( 0.3 * i ) * 5 + 0.1 * j * j / 3.0;
+	}
+
+}
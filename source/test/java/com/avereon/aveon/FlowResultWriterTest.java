@@ -0,0 +1,104 @@
+package com.avereon.aveon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.avereon.aveon.FlowResultWriter.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FlowResultWriterTest {
+
+	@TempDir
+	Path folder;
+
+	@Test
+	void testWriteAndRead() throws Exception {
+		Path file = folder.resolve( "results.bin" );
+		int caseCount = 25;
+		int panelCount = 7;
+
+		// Use a small block size so the columns have several blocks
+		try( FlowResultWriter writer = new FlowResultWriter( Files.newOutputStream( file ), 10 ) ) {
+			for( int id = 0; id < caseCount; id++ ) {
+				double[] x = new double[ panelCount ];
+				double[] cp = new double[ panelCount ];
+				double[] cf = new double[ panelCount ];
+				for( int panel = 0; panel < panelCount; panel++ ) {
+					x[ panel ] = panel / (double)(panelCount - 1);
+					cp[ panel ] = id - panel;
+					cf[ panel ] = 0.001 * panel;
+				}
+				writer.writeCase( id, 0.5 * id, 0.1 * id, -0.01 * id, 0.002 * id, x, cp, cf );
+			}
+		}
+
+		try( FlowResultReader reader = FlowResultReader.open( file ) ) {
+			assertThat( reader.getTableNames() ).containsExactly( CASES, PANELS );
+			assertThat( reader.getColumnNames( CASES ) ).containsExactly( CASE, ALPHA, CL, CM, CD );
+			assertThat( reader.getColumnNames( PANELS ) ).containsExactly( CASE, X, CP, CF );
+			assertThat( reader.getRowCount( CASES ) ).isEqualTo( caseCount );
+			assertThat( reader.getRowCount( PANELS ) ).isEqualTo( caseCount * panelCount );
+
+			int[] ids = reader.readInts( CASES, CASE );
+			double[] alpha = reader.readDoubles( CASES, ALPHA );
+			double[] cl = reader.readDoubles( CASES, CL );
+			for( int id = 0; id < caseCount; id++ ) {
+				assertThat( ids[ id ] ).isEqualTo( id );
+				assertThat( alpha[ id ] ).isEqualTo( 0.5 * id );
+				assertThat( cl[ id ] ).isEqualTo( 0.1 * id );
+			}
+
+			int[] panelCases = reader.readInts( PANELS, CASE );
+			double[] cp = reader.readDoubles( PANELS, CP );
+			for( int row = 0; row < caseCount * panelCount; row++ ) {
+				int id = row / panelCount;
+				int panel = row % panelCount;
+				assertThat( panelCases[ row ] ).isEqualTo( id );
+				assertThat( cp[ row ] ).isEqualTo( (double)(id - panel) );
+			}
+		}
+	}
+
+	@Test
+	void testEmpty() throws Exception {
+		Path file = folder.resolve( "empty.bin" );
+		new FlowResultWriter( Files.newOutputStream( file ) ).close();
+
+		try( FlowResultReader reader = FlowResultReader.open( file ) ) {
+			assertThat( reader.getRowCount( CASES ) ).isEqualTo( 0L );
+			assertThat( reader.readDoubles( PANELS, CP ) ).isEmpty();
+		}
+	}
+
+	@Test
+	void testWrongColumnType() throws Exception {
+		Path file = folder.resolve( "results.bin" );
+		try( FlowResultWriter writer = new FlowResultWriter( Files.newOutputStream( file ) ) ) {
+			writer.writeCase( 1, 0, 0, 0, 0, new double[ 0 ], new double[ 0 ], new double[ 0 ] );
+		}
+
+		try( FlowResultReader reader = FlowResultReader.open( file ) ) {
+			assertThatThrownBy( () -> reader.readDoubles( CASES, CASE ) ).isInstanceOf( IllegalArgumentException.class );
+			assertThatThrownBy( () -> reader.readDoubles( CASES, "missing" ) ).isInstanceOf( IllegalArgumentException.class );
+		}
+	}
+
+	@Test
+	void testIncompleteFile() throws Exception {
+		Path file = folder.resolve( "results.bin" );
+		FlowResultWriter writer = new FlowResultWriter( Files.newOutputStream( file ) );
+		writer.writeCase( 1, 0, 0, 0, 0, new double[]{ 0 }, new double[]{ 0 }, new double[]{ 0 } );
+		writer.close();
+
+		byte[] bytes = Files.readAllBytes( file );
+		Files.write( file, Arrays.copyOf( bytes, bytes.length - 4 ) );
+		assertThatThrownBy( () -> FlowResultReader.open( file ) ).isInstanceOf( IOException.class );
+	}
+
+}
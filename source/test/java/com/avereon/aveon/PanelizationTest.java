@@ -0,0 +1,59 @@
+package com.avereon.aveon;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PanelizationTest {
+
+	private static final Offset<Double> TOLERANCE = Offset.offset( 1e-12 );
+
+	@Test
+	void testLinearStations() {
+		Panelization panelization = new Panelization( 4, Panelization.Spacing.LINEAR );
+		assertThat( panelization.getStation( 0 ) ).isEqualTo( 0.0 );
+		assertThat( panelization.getStation( 1 ) ).isCloseTo( 0.25, TOLERANCE );
+		assertThat( panelization.getStation( 4 ) ).isCloseTo( 1.0, TOLERANCE );
+	}
+
+	@Test
+	void testClusteredStations() {
+		Panelization cosine = new Panelization( 10, Panelization.Spacing.COSINE );
+		Panelization leading = new Panelization( 10, Panelization.Spacing.LEADING_EDGE );
+		Panelization trailing = new Panelization( 10, Panelization.Spacing.TRAILING_EDGE );
+
+		for( Panelization panelization : new Panelization[]{ cosine, leading, trailing } ) {
+			assertThat( panelization.getStation( 0 ) ).isCloseTo( 0.0, TOLERANCE );
+			assertThat( panelization.getStation( 10 ) ).isCloseTo( 1.0, TOLERANCE );
+		}
+
+		// Stations are closer together where they are clustered
+		assertThat( cosine.getStation( 1 ) ).isLessThan( 0.1 );
+		assertThat( 1 - cosine.getStation( 9 ) ).isLessThan( 0.1 );
+		assertThat( leading.getStation( 1 ) ).isLessThan( 0.1 );
+		assertThat( 1 - leading.getStation( 9 ) ).isGreaterThan( 0.1 );
+		assertThat( trailing.getStation( 1 ) ).isGreaterThan( 0.1 );
+		assertThat( 1 - trailing.getStation( 9 ) ).isLessThan( 0.1 );
+	}
+
+	@Test
+	void testPartialClustering() {
+		Panelization linear = new Panelization( 10, Panelization.Spacing.LINEAR );
+		Panelization cosine = new Panelization( 10, Panelization.Spacing.COSINE );
+		Panelization half = new Panelization( 10, Panelization.Spacing.COSINE, 0.5 );
+
+		assertThat( half.getStation( 2 ) ).isCloseTo( 0.5 * (linear.getStation( 2 ) + cosine.getStation( 2 )), TOLERANCE );
+	}
+
+	@Test
+	void testEquals() {
+		assertThat( new Panelization( 60, Panelization.Spacing.COSINE ) ).isEqualTo( Panelization.PANELS );
+		assertThat( new Panelization( 60, Panelization.Spacing.COSINE ).hashCode() ).isEqualTo( Panelization.PANELS.hashCode() );
+		assertThat( Panelization.PANELS.withCount( 120 ) ).isNotEqualTo( Panelization.PANELS );
+		assertThat( new Panelization( 60, Panelization.Spacing.COSINE, 0.5 ) ).isNotEqualTo( Panelization.PANELS );
+		assertThat( new Panelization( 60, Panelization.Spacing.LINEAR, -0.0 ) ).isEqualTo( new Panelization( 60, Panelization.Spacing.LINEAR, 0.0 ) );
+		assertThat( new Panelization( 60, Panelization.Spacing.LINEAR, -0.0 ).hashCode() ).isEqualTo( new Panelization( 60, Panelization.Spacing.LINEAR, 0.0 ).hashCode() );
+	}
+
+}
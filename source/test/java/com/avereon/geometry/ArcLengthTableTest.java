@@ -0,0 +1,53 @@
+package com.avereon.geometry;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArcLengthTableTest {
+
+	// Control point distance for a cubic approximation of a quarter circle
+	private static final double K = 0.5522847498;
+
+	@Test
+	void testLine() {
+		ArcLengthTable table = new ArcLengthTable( List.of( new Cubic2D( 0, 0, 1, 0, 2, 0, 3, 0 ), new Cubic2D( 3, 0, 3, 1, 3, 2, 3, 3 ) ) );
+
+		assertThat( table.getCurveCount() ).isEqualTo( 2 );
+		assertThat( table.getSampleCount() ).isEqualTo( 33 );
+		assertThat( table.getLength() ).isCloseTo( 6.0, Offset.offset( 1e-12 ) );
+		assertThat( table.getDistance( 0.5 ) ).isCloseTo( 1.5, Offset.offset( 1e-12 ) );
+		assertThat( table.getDistance( 1.5 ) ).isCloseTo( 4.5, Offset.offset( 1e-12 ) );
+		assertThat( table.getParameter( 4.5 ) ).isCloseTo( 1.5, Offset.offset( 1e-12 ) );
+		assertThat( table.getPointAtDistance( 2 ) ).isEqualTo( new Point2D( 2, 0 ) );
+		assertThat( table.getCurvature( 0.3 ) ).isEqualTo( 0.0 );
+	}
+
+	@Test
+	void testCircle() {
+		ArcLengthTable table = new ArcLengthTable( List.of( new Cubic2D( 1, 0, 1, K, K, 1, 0, 1 ), new Cubic2D( 0, 1, -K, 1, -1, K, -1, 0 ) ) );
+
+		assertThat( table.getLength() ).isCloseTo( Math.PI, Offset.offset( 1e-3 ) );
+		for( int index = 0; index < table.getSampleCount(); index++ ) {
+			assertThat( table.getSampleCurvature( index ) ).isCloseTo( 1.0, Offset.offset( 0.03 ) );
+		}
+		assertThat( table.getPointAtDistance( 0.5 * table.getLength() ).distance( 0, 1 ) ).isLessThan( 1e-12 );
+	}
+
+	@Test
+	void testDistanceParameterRoundTrip() {
+		ArcLengthTable table = new ArcLengthTable( List.of( new Cubic2D( 0, 0, 0, 0.5, 0.5, 1, 1, 1 ), new Cubic2D( 1, 1, 2, 1, 2, 0, 3, -2 ) ) );
+
+		for( int index = 0; index <= 100; index++ ) {
+			double parameter = 2.0 * index / 100;
+			double distance = table.getDistance( parameter );
+			assertThat( table.getParameter( distance ) ).isCloseTo( parameter, Offset.offset( 1e-10 ) );
+		}
+		assertThat( table.getParameter( -1 ) ).isEqualTo( 0.0 );
+		assertThat( table.getParameter( table.getLength() + 1 ) ).isEqualTo( 2.0 );
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.avereon.geometry;
 
+import com.avereon.curve.math.Intersection2D;
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.Test;
 
@@ -56,6 +57,68 @@ public class CfdGeometryTest {
 		assertThat( CfdGeometry.getPointLineDistance( new Point2D( 1.5, 1.0 ), new Point2D( 0, 0 ), new Point2D( 1, 0 ) )).isEqualTo( 1.0 );
 	}
 
+	@Test
+	void testFindIntersections() {
+		SegmentedPath2D a = SegmentedPath2D.of( List.of( new Point2D( 0, 0 ), new Point2D( 2, 2 ), new Point2D( 4, 0 ) ) );
+		SegmentedPath2D b = SegmentedPath2D.of( List.of( new Point2D( 0, 1 ), new Point2D( 4, 1 ) ) );
+
+		List<Point2D> intersections = CfdGeometry.findIntersections( a, b );
+		assertThat( intersections ).containsExactly( new Point2D( 1, 1 ), new Point2D( 3, 1 ) );
+
+		assertThat( CfdGeometry.findIntersections( a, SegmentedPath2D.of( List.of( new Point2D( 0, 3 ), new Point2D( 4, 3 ) ) ) ) ).isEmpty();
+		assertThat( CfdGeometry.findIntersections( a, SegmentedPath2D.of() ) ).isEmpty();
+	}
+
+	@Test
+	void testFindIntersectionsMatchesAllPairs() {
+		List<Point2D> aPoints = new ArrayList<>();
+		List<Point2D> bPoints = new ArrayList<>();
+		int count = 500;
+		for( int index = 0; index <= count; index++ ) {
+			double x = (double)index / count;
+			aPoints.add( new Point2D( x, Math.sin( 20 * x ) ) );
+			bPoints.add( new Point2D( 1 - x, Math.cos( 17 * x ) ) );
+		}
+		SegmentedPath2D a = SegmentedPath2D.of( aPoints );
+		SegmentedPath2D b = SegmentedPath2D.of( bPoints );
+
+		List<Point2D> expected = new ArrayList<>();
+		for( Line2D aSegment : a.getSegments() ) {
+			for( Line2D bSegment : b.getSegments() ) {
+				Intersection2D intersection = aSegment.intersection( bSegment );
+				if( intersection.getType() == Intersection2D.Type.INTERSECTION ) expected.addAll( Point2D.of( intersection.getPoints() ) );
+			}
+		}
+
+		assertThat( expected.isEmpty() ).isFalse();
+		assertThat( CfdGeometry.findIntersections( a, b ) ).isEqualTo( expected );
+	}
+
+	@Test
+	void testFindAreasMatchesPolygons() {
+		List<Point2D> a = new ArrayList<>();
+		List<Point2D> b = new ArrayList<>();
+		for( int index = 0; index <= 400; index++ ) {
+			double x = index / 400.0;
+			a.add( new Point2D( x, 0.1 * Math.sin( 9 * x ) ) );
+		}
+		for( int index = 0; index <= 700; index++ ) {
+			double x = index / 700.0;
+			b.add( new Point2D( x, 0.05 * Math.sin( 23 * x ) ) );
+		}
+
+		List<List<Point2D>> polygons = CfdGeometry.findPolygons( a, b );
+		List<Double> areas = CfdGeometry.findAreas( a, b );
+
+		assertThat( polygons.size() ).isGreaterThan( 1 );
+		assertThat( areas.size() ).isEqualTo( polygons.size() );
+		for( int index = 0; index < areas.size(); index++ ) {
+			double expected = CfdGeometry.calcPolygonArea( polygons.get( index ) );
+			assertThat( expected ).isGreaterThan( 0.0 );
+			assertThat( areas.get( index ) ).isCloseTo( expected, Offset.offset( 1e-12 ) );
+		}
+	}
+
 	@Test
 	void testFindNearestSegment() {
 		List<Point2D> points = List.of( new Point2D( 0, 0 ), Point2D.of( 1, 1 ), Point2D.of( 2, 1 ), Point2D.of( 3, 0 ) );
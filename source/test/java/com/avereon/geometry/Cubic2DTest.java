@@ -1,5 +1,6 @@
 package com.avereon.geometry;
 
+import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -49,4 +50,47 @@ public class Cubic2DTest {
 		assertThat( q[ 1 ] ).isEqualTo( new Cubic2D( 0.5, 0, 0.625, -0.125, 0.75, -0.25, 1.0, 0.0 ) );
 	}
 
+	@Test
+	void testSolveX() {
+		Cubic2D curve = new Cubic2D( 0, 0, 0, 0.5, 0.5, 1, 1, 1 );
+
+		assertThat( curve.solveX( 0 ) ).isEqualTo( 0.0 );
+		assertThat( curve.solveX( 1 ) ).isEqualTo( 1.0 );
+		assertThat( curve.solveX( 0.3125 ) ).isCloseTo( 0.5, Offset.offset( 1e-12 ) );
+		for( int index = 1; index < 100; index++ ) {
+			double x = index / 100.0;
+			assertThat( curve.eval( curve.solveX( x ) ).getX() ).isCloseTo( x, Offset.offset( 1e-12 ) );
+		}
+	}
+
+	@Test
+	void testSolveXWithReversedCurve() {
+		Cubic2D curve = new Cubic2D( 1, 1, 0.5, 1, 0, 0.5, 0, 0 );
+
+		assertThat( curve.solveX( 0.3125 ) ).isCloseTo( 0.5, Offset.offset( 1e-12 ) );
+		assertThat( curve.solveX( 1.5 ) ).isNaN();
+		assertThat( curve.solveX( -0.5 ) ).isNaN();
+	}
+
+	@Test
+	void testArcLength() {
+		Cubic2D line = new Cubic2D( 0, 0, 1, 1, 2, 2, 3, 3 );
+		assertThat( line.getArcLength() ).isCloseTo( 3 * Math.sqrt( 2 ), Offset.offset( 1e-12 ) );
+		assertThat( line.getArcLength( 0.5, 1 ) ).isCloseTo( 1.5 * Math.sqrt( 2 ), Offset.offset( 1e-12 ) );
+		assertThat( line.getSpeed( 0.3 ) ).isCloseTo( 3 * Math.sqrt( 2 ), Offset.offset( 1e-12 ) );
+	}
+
+	@Test
+	void testCurvature() {
+		// A cubic approximation of a quarter of the unit circle
+		Cubic2D arc = new Cubic2D( 1, 0, 1, 0.5522847498, 0.5522847498, 1, 0, 1 );
+		assertThat( arc.getCurvature( 0.5 ) ).isCloseTo( 1.0, Offset.offset( 1e-2 ) );
+
+		// Turning clockwise has negative curvature
+		Cubic2D reverse = new Cubic2D( 0, 1, 0.5522847498, 1, 1, 0.5522847498, 1, 0 );
+		assertThat( reverse.getCurvature( 0.5 ) ).isCloseTo( -1.0, Offset.offset( 1e-2 ) );
+
+		assertThat( new Cubic2D( 0, 0, 0, 0, 0, 0, 0, 0 ).getCurvature( 0.5 ) ).isNaN();
+	}
+
 }
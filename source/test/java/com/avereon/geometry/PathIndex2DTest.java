@@ -0,0 +1,77 @@
+package com.avereon.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathIndex2DTest {
+
+	@Test
+	void testFindNearestPoint() {
+		List<Point2D> path = List.of( Point2D.of( 0, 0 ), Point2D.of( 1, 1 ), Point2D.of( 2, 1 ), Point2D.of( 3, 0 ) );
+		PathIndex2D index = PathIndex2D.of( path );
+
+		assertThat( index.findNearestPoint( Point2D.of( 0.9, 1.2 ) ) ).isEqualTo( Point2D.of( 1, 1 ) );
+		assertThat( index.findNearestPoint( Point2D.of( 5, -1 ) ) ).isEqualTo( Point2D.of( 3, 0 ) );
+		assertThat( index.findSmallestDistance( Point2D.of( 2, 3 ) ) ).isEqualTo( 2.0 );
+		assertThat( PathIndex2D.of( List.of() ).findNearestPoint( Point2D.of( 0, 0 ) ) ).isNull();
+	}
+
+	@Test
+	void testFindNearestPointChoosesFirstOfEqualPoints() {
+		// A grid has many points at the same distance
+		List<Point2D> grid = new ArrayList<>();
+		for( int y = 0; y < 10; y++ ) {
+			for( int x = 0; x < 10; x++ ) {
+				grid.add( new Point2D( x, y ) );
+			}
+		}
+		PathIndex2D index = PathIndex2D.of( grid );
+
+		for( int y = 0; y < 19; y++ ) {
+			for( int x = 0; x < 19; x++ ) {
+				Point2D anchor = new Point2D( 0.5 * x, 0.5 * y );
+				assertThat( index.findNearestPoint( anchor ) ).isSameAs( CfdGeometry.findNearestPoint( anchor, grid ) );
+			}
+		}
+	}
+
+	@Test
+	void testFindShortestPathOffset() {
+		List<Point2D> path = List.of( Point2D.of( 0, 0 ), Point2D.of( 1, 1 ), Point2D.of( 2, 1 ), Point2D.of( 3, 0 ) );
+		PathIndex2D index = PathIndex2D.of( path );
+
+		for( Point2D anchor : List.of( Point2D.of( 1.5, 0 ), Point2D.of( 1.5, 2 ), Point2D.of( -1, 0.5 ), Point2D.of( 3, 3 ), Point2D.of( 1, 1 ) ) ) {
+			assertThat( index.findShortestPathOffset( anchor ) ).isEqualTo( CfdGeometry.findShortestPathOffset( anchor, path ) );
+		}
+	}
+
+	@Test
+	void testMatchesLinearScans() {
+		Random random = new Random( 42 );
+		List<Point2D> path = new ArrayList<>();
+		for( int index = 0; index <= 1000; index++ ) {
+			double t = 2 * Math.PI * index / 1000;
+			path.add( new Point2D( Math.cos( t ) * (1 + 0.1 * Math.sin( 7 * t )), 0.3 * Math.sin( t ) ) );
+		}
+		List<Point2D> points = new ArrayList<>();
+		for( int index = 0; index < 1000; index++ ) {
+			points.add( new Point2D( 3 * random.nextDouble() - 1.5, random.nextDouble() - 0.5 ) );
+		}
+
+		List<Point2D> nearest = CfdGeometry.findNearestPoints( points, path );
+		List<Double> distances = CfdGeometry.findPointDistances( points, path );
+		List<Double> offsets = CfdGeometry.findPathOffsets( points, path );
+		for( int index = 0; index < points.size(); index++ ) {
+			Point2D point = points.get( index );
+			assertThat( nearest.get( index ) ).isSameAs( CfdGeometry.findNearestPoint( point, path ) );
+			assertThat( distances.get( index ) ).isEqualTo( CfdGeometry.findSmallestDistance( point, path ) );
+			assertThat( offsets.get( index ) ).isEqualTo( CfdGeometry.findShortestPathOffset( point, path ) );
+		}
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.avereon.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PointArray2DTest {
+
+	@Test
+	void testAccess() {
+		PointArray2D points = new PointArray2D( new double[]{ 0, 1, 2, 3, 4, 5 } );
+
+		assertThat( points.size() ).isEqualTo( 3 );
+		assertThat( points.isEmpty() ).isFalse();
+		assertThat( points.getX( 1 ) ).isEqualTo( 2.0 );
+		assertThat( points.getY( 2 ) ).isEqualTo( 5.0 );
+		assertThat( points.get( 0 ) ).isEqualTo( new Point2D( 0, 1 ) );
+		assertThat( PointArray2D.EMPTY.isEmpty() ).isTrue();
+	}
+
+	@Test
+	void testListView() {
+		List<Point2D> expected = List.of( new Point2D( 0, 1 ), new Point2D( 2, 3 ), new Point2D( 4, 5 ) );
+		PointArray2D points = PointArray2D.of( expected );
+
+		assertThat( points.asList() ).isEqualTo( expected );
+		assertThat( points.asList() ).isSameAs( points.asList() );
+		assertThat( points.toArray() ).isEqualTo( new double[]{ 0, 1, 2, 3, 4, 5 } );
+		assertThat( points ).isEqualTo( new PointArray2D( new double[]{ 0, 1, 2, 3, 4, 5 } ) );
+	}
+
+}
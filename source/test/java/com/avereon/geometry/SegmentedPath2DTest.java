@@ -35,4 +35,38 @@ public class SegmentedPath2DTest {
 		assertThat( path.getPercentDistance( 4 ) ).isEqualTo( 1.0 );
 	}
 
+	@Test
+	void testGetDistance() {
+		assertThat( path.getDistance( 0 ) ).isEqualTo( 0.0 );
+		assertThat( path.getDistance( 2 ) ).isEqualTo( 3.0 );
+		assertThat( path.getDistance( 4 ) ).isEqualTo( 10.0 );
+	}
+
+	@Test
+	void testGetSegmentIndexAtDistance() {
+		assertThat( path.getSegmentIndexAtDistance( -1 ) ).isEqualTo( 0 );
+		assertThat( path.getSegmentIndexAtDistance( 0 ) ).isEqualTo( 0 );
+		assertThat( path.getSegmentIndexAtDistance( 0.5 ) ).isEqualTo( 0 );
+		assertThat( path.getSegmentIndexAtDistance( 1 ) ).isEqualTo( 1 );
+		assertThat( path.getSegmentIndexAtDistance( 5 ) ).isEqualTo( 2 );
+		assertThat( path.getSegmentIndexAtDistance( 10 ) ).isEqualTo( 3 );
+		assertThat( path.getSegmentIndexAtDistance( 11 ) ).isEqualTo( 3 );
+		assertThat( path.getSegmentIndexAtPercent( 0.7 ) ).isEqualTo( 3 );
+		assertThat( path.getSegmentAtPercent( 0.2 ) ).isEqualTo( new Line2D( new Point2D( 1, 0 ), new Point2D( 1, 2 ) ) );
+		assertThat( SegmentedPath2D.of().getSegmentIndexAtPercent( 0.5 ) ).isEqualTo( -1 );
+	}
+
+	@Test
+	void testGetPointAtDistance() {
+		assertThat( path.getPointAtDistance( -1 ) ).isEqualTo( new Point2D( 0, 0 ) );
+		assertThat( path.getPointAtDistance( 0.5 ) ).isEqualTo( new Point2D( 0.5, 0 ) );
+		assertThat( path.getPointAtDistance( 2 ) ).isEqualTo( new Point2D( 1, 1 ) );
+		assertThat( path.getPointAtDistance( 4 ) ).isEqualTo( new Point2D( 0, 2 ) );
+		assertThat( path.getPointAtDistance( 8 ) ).isEqualTo( new Point2D( -2, 0 ) );
+		assertThat( path.getPointAtDistance( 12 ) ).isEqualTo( new Point2D( -2, -2 ) );
+		assertThat( path.getPointAtPercent( 0.3 ) ).isEqualTo( new Point2D( 1, 2 ) );
+		assertThat( path.getPointAtPercent( 0.8 ) ).isEqualTo( new Point2D( -2, 0 ) );
+		assertThat( SegmentedPath2D.of().getPointAtPercent( 0.5 ) ).isNull();
+	}
+
 }